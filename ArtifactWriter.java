@@ -0,0 +1,213 @@
+package com.frugaltests;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Background writer for test artifacts. Tests hand over bytes already captured in memory and carry on;
+ * hashing and file I/O happen on a small pool of writer threads.
+ * - Bounded: at most {@code capacity} artifacts wait in the queue; when it is full the submitting test
+ *   writes the artifact itself (back-pressure instead of unbounded memory).
+ * - Deduplicated: content seen before (by SHA-256) is not written again, the new file is a hard link
+ *   to the first copy (a plain copy where the file system has no hard links).
+ * - Files are written to a temp file and moved into place, so readers never see half-written artifacts.
+ */
+final class ArtifactWriter {
+
+    private static volatile ArtifactWriter shared;
+
+    private final ThreadPoolExecutor executor;
+    private final Map<String, CompletableFuture<Path>> byHash = new ConcurrentHashMap<>();
+    private final Map<Path, String> hashAt = new ConcurrentHashMap<>();
+    private final Set<CompletableFuture<Path>> pending = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger written = new AtomicInteger();
+    private final AtomicInteger deduplicated = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+
+    ArtifactWriter(int threads, int capacity) {
+        AtomicInteger ids = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, new ArrayBlockingQueue<>(capacity),
+                r -> {
+                    Thread t = new Thread(r, "artifact-writer-" + ids.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /** JVM-wide writer; pending artifacts are flushed by a shutdown hook. */
+    static ArtifactWriter shared() {
+        if (shared == null) {
+            synchronized (ArtifactWriter.class) {
+                if (shared == null) {
+                    ArtifactWriter writer = new ArtifactWriter(2, 64);
+                    Runtime.getRuntime().addShutdownHook(new Thread(() -> writer.shutdown(Duration.ofSeconds(30)),
+                            "artifact-writer-shutdown"));
+                    shared = writer;
+                }
+            }
+        }
+        return shared;
+    }
+
+    /** Waits for the shared writer (if it was ever used) to finish everything submitted so far. */
+    static boolean awaitShared(Duration timeout) {
+        ArtifactWriter writer = shared;
+        return writer == null || writer.awaitIdle(timeout);
+    }
+
+    /** Queues the content for {@code target}; the future completes with the path once the file exists. */
+    CompletableFuture<Path> write(Path file, byte[] content, boolean deduplicate) {
+        Path target = file.toAbsolutePath().normalize();
+        CompletableFuture<Path> result = new CompletableFuture<>();
+        pending.add(result);
+        result.whenComplete((p, e) -> pending.remove(result));
+        executor.execute(() -> {
+            try {
+                if (deduplicate) {
+                    writeDeduplicated(target, content, result);
+                } else {
+                    claim(target, null);
+                    writeFile(target, content);
+                    written.incrementAndGet();
+                    result.complete(target);
+                }
+            } catch (Exception e) {
+                fail(target, e, result);
+            }
+        });
+        return result;
+    }
+
+    /** True when all artifacts submitted so far were written (or failed) within the timeout. */
+    boolean awaitIdle(Duration timeout) {
+        try {
+            CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0]))
+                    .handle((v, e) -> null)
+                    .get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            return true;
+        }
+    }
+
+    void shutdown(Duration timeout) {
+        awaitIdle(timeout);
+        executor.shutdown();
+    }
+
+    int filesWritten() {
+        return written.get();
+    }
+
+    int filesDeduplicated() {
+        return deduplicated.get();
+    }
+
+    int writesFailed() {
+        return failed.get();
+    }
+
+    private void writeDeduplicated(Path target, byte[] content, CompletableFuture<Path> result) throws IOException {
+        String hash = sha256(content);
+        CompletableFuture<Path> first = new CompletableFuture<>();
+        CompletableFuture<Path> existing = byHash.putIfAbsent(hash, first);
+        if (existing == null) {
+            try {
+                claim(target, hash);
+                writeFile(target, content);
+            } catch (IOException | RuntimeException e) {
+                byHash.remove(hash, first);
+                first.completeExceptionally(e);
+                throw e;
+            }
+            written.incrementAndGet();
+            first.complete(target);
+            result.complete(target);
+            return;
+        }
+        existing.whenComplete((original, error) -> {
+            try {
+                if (error != null || !Files.exists(original)) {
+                    claim(target, hash);
+                    writeFile(target, content);
+                    written.incrementAndGet();
+                } else if (!original.equals(target)) {
+                    claim(target, hash);
+                    link(original, target);
+                    deduplicated.incrementAndGet();
+                }
+                result.complete(target);
+            } catch (Exception e) {
+                fail(target, e, result);
+            }
+        });
+    }
+
+    /**
+     * Records that {@code target} is about to hold content with the given hash (null: not tracked). If it held the
+     * first copy of other content, that content is forgotten so later duplicates are not linked to the wrong file.
+     */
+    private void claim(Path target, String hash) {
+        String previous = hash == null ? hashAt.remove(target) : hashAt.put(target, hash);
+        if (previous != null && !previous.equals(hash)) {
+            byHash.computeIfPresent(previous, (h, f) -> target.equals(f.getNow(null)) ? null : f);
+        }
+    }
+
+    private void fail(Path target, Exception e, CompletableFuture<Path> result) {
+        failed.incrementAndGet();
+        System.err.println("Could not write artifact " + target + ": " + e.getMessage());
+        result.completeExceptionally(e);
+    }
+
+    private static void writeFile(Path target, byte[] content) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path tmp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            Files.write(tmp, content);
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static void link(Path original, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        Files.deleteIfExists(target);
+        try {
+            Files.createLink(target, original);
+        } catch (IOException | UnsupportedOperationException e) {
+            Files.copy(original, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
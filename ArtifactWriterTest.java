@@ -0,0 +1,85 @@
+package com.frugaltests;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Background artifact writes, content deduplication and the failures-only policy, without a browser.
+ */
+public class ArtifactWriterTest {
+
+    @Test
+    @DisplayName("Identical content is written once; other files are linked to it")
+    public void testDeduplication(@TempDir Path dir) throws Exception {
+        ArtifactWriter writer = new ArtifactWriter(2, 4);
+        byte[] png = {1, 2, 3, 4};
+        for (int i = 0; i < 10; i++) {
+            writer.write(dir.resolve("test-" + i).resolve("state.png"), png, true);
+        }
+        writer.write(dir.resolve("other.png"), new byte[]{9}, true);
+        Assertions.assertTrue(writer.awaitIdle(Duration.ofSeconds(10)));
+
+        Assertions.assertEquals(2, writer.filesWritten());
+        Assertions.assertEquals(9, writer.filesDeduplicated());
+        Assertions.assertEquals(0, writer.writesFailed());
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertArrayEquals(png, Files.readAllBytes(dir.resolve("test-" + i).resolve("state.png")));
+        }
+        writer.shutdown(Duration.ofSeconds(1));
+    }
+
+    @Test
+    @DisplayName("Overwriting the first copy does not corrupt later duplicates")
+    public void testOverwriteOriginal(@TempDir Path dir) throws Exception {
+        ArtifactWriter writer = new ArtifactWriter(1, 4);
+        Path first = dir.resolve("first.png");
+        writer.write(first, new byte[]{1}, true).get();
+        writer.write(first, new byte[]{2}, true).get();
+        writer.write(dir.resolve("second.png"), new byte[]{1}, true).get();
+
+        Assertions.assertArrayEquals(new byte[]{2}, Files.readAllBytes(first));
+        Assertions.assertArrayEquals(new byte[]{1}, Files.readAllBytes(dir.resolve("second.png")));
+        writer.shutdown(Duration.ofSeconds(1));
+    }
+
+    @Test
+    @DisplayName("Failures-only policy skips success screenshots but keeps diagnostics")
+    public void testFailuresOnlyPolicy(@TempDir Path dir) {
+        AtomicInteger captures = new AtomicInteger();
+        WebDriver driver = (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{WebDriver.class, TakesScreenshot.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("getScreenshotAs") && args[0] == OutputType.BYTES) {
+                        captures.incrementAndGet();
+                        return new byte[]{7, 7};
+                    }
+                    if (method.getName().equals("getPageSource")) return "<html></html>";
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        ArtifactWriter writer = new ArtifactWriter(1, 4);
+        TestArtifacts artifacts = new TestArtifacts(dir, TestArtifacts.Policy.parse("failures"), writer);
+
+        Assertions.assertEquals(Optional.empty(), artifacts.saveSuccessScreenshot(driver, "success.png"));
+        Assertions.assertEquals(0, captures.get());
+        Assertions.assertFalse(artifacts.diagnosticsSaved());
+
+        Path png = artifacts.saveScreenshot(driver, "failure.png");
+        Path html = artifacts.savePageSource(driver, "failure.html");
+        Assertions.assertTrue(artifacts.awaitWrites(Duration.ofSeconds(10)));
+        Assertions.assertTrue(artifacts.diagnosticsSaved());
+        Assertions.assertTrue(Files.exists(png));
+        Assertions.assertTrue(Files.exists(html));
+        Assertions.assertFalse(Files.exists(dir.resolve("success.png")));
+        Assertions.assertEquals(TestArtifacts.Policy.ALL, TestArtifacts.Policy.parse(null));
+        writer.shutdown(Duration.ofSeconds(1));
+    }
+}
@@ -0,0 +1,86 @@
+package com.frugaltests;
+
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolver;
+import org.openqa.selenium.WebDriver;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Injects {@link TestArtifacts} pointing at a directory unique to the current test invocation:
+ * {@code <frugal.artifacts.dir>/<TestClass>/<method>[-<invocation>]}, default base {@code target/artifacts}.
+ * - {@code frugal.artifacts.policy=failures} skips success screenshots ({@link TestArtifacts.Policy}).
+ * - A failing browser test that saved no diagnostics of its own gets failure.png and failure.html.
+ * - After each test class the background writes are flushed, so the files are complete when the class ends.
+ */
+public class ArtifactsExtension implements ParameterResolver, AfterEachCallback, AfterAllCallback {
+
+    public static final String ARTIFACTS_DIR = "frugal.artifacts.dir";
+    public static final String ARTIFACTS_POLICY = "frugal.artifacts.policy";
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(ArtifactsExtension.class);
+
+    @Override
+    public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return parameterContext.getParameter().getType() == TestArtifacts.class;
+    }
+
+    @Override
+    public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return artifacts(extensionContext);
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        if (context.getExecutionException().isEmpty()) return;
+        WebDriver session = DriverPoolExtension.session(context);
+        TestArtifacts artifacts = artifacts(context);
+        if (session == null || artifacts.diagnosticsSaved()) return;
+        try {
+            artifacts.saveScreenshot(session, "failure.png");
+            artifacts.savePageSource(session, "failure.html");
+        } catch (Exception e) {
+            System.err.println("Could not capture failure artifacts: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void afterAll(ExtensionContext context) {
+        if (!ArtifactWriter.awaitShared(Duration.ofSeconds(30))) {
+            System.err.println("Artifact writes still pending after 30s");
+        }
+    }
+
+    private static TestArtifacts artifacts(ExtensionContext context) {
+        return context.getStore(NAMESPACE).getOrComputeIfAbsent(TestArtifacts.class, k -> new TestArtifacts(directoryFor(context),
+                TestArtifacts.Policy.parse(context.getConfigurationParameter(ARTIFACTS_POLICY).orElse("all")),
+                ArtifactWriter.shared()), TestArtifacts.class);
+    }
+
+    static Path directoryFor(ExtensionContext context) {
+        Path base = Path.of(context.getConfigurationParameter(ARTIFACTS_DIR).orElse("target/artifacts"));
+        String className = context.getRequiredTestClass().getSimpleName();
+        String method = context.getTestMethod().map(m -> m.getName()).orElse("class");
+        return base.resolve(className).resolve(method + invocationSuffix(context.getUniqueId()));
+    }
+
+    /** "-3" for the third dynamic test / repetition of a method, empty for a plain @Test. */
+    private static String invocationSuffix(String uniqueId) {
+        int method = uniqueId.indexOf("[method:");
+        if (method < 0) method = uniqueId.indexOf("[test-factory:");
+        if (method < 0) method = uniqueId.indexOf("[test-template:");
+        if (method < 0) return "";
+        StringBuilder suffix = new StringBuilder();
+        int from = uniqueId.indexOf(']', method);
+        while (from >= 0 && (from = uniqueId.indexOf(":#", from)) >= 0) {
+            int end = uniqueId.indexOf(']', from);
+            suffix.append('-').append(uniqueId, from + 2, end);
+            from = end;
+        }
+        return suffix.toString();
+    }
+}
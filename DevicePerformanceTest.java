@@ -0,0 +1,115 @@
+package com.frugaltests;
+
+import org.junit.jupiter.api.*;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Performance budgets of the form on a throttled device (default mid-tier-mobile: 4x CPU slowdown, Fast 3G),
+ * so a change to script.js that makes the page too slow fails the suite:
+ * - state.populate: country change to rendered state options, with the country files already loaded
+ * - keystroke.error: keydown to the first frame showing the field's error, worst of several fields
+ * - load.script / flow.script: main-thread script time of loading the page and of the interactions
+ * - longtask.max: the longest task during load and interactions
+ *
+ * -Dfrugal.budget.profile selects the profile, -Dfrugal.budget.&lt;name&gt;.ms overrides a budget.
+ */
+@RegistrationFlow
+public class DevicePerformanceTest {
+
+    private static final PerformanceBudget STATE_POPULATE = PerformanceBudget.of("state.populate", 50);
+    private static final PerformanceBudget KEYSTROKE_ERROR = PerformanceBudget.of("keystroke.error", 100);
+    private static final PerformanceBudget LOAD_SCRIPT = PerformanceBudget.of("load.script", 200);
+    private static final PerformanceBudget FLOW_SCRIPT = PerformanceBudget.of("flow.script", 400);
+    private static final PerformanceBudget LONG_TASK = PerformanceBudget.of("longtask.max", 100);
+
+    private static final String POPULATE_SCRIPT = """
+            const done = arguments[arguments.length - 1];
+            const country = document.getElementById('country'), state = document.getElementById('state');
+            const change = el => el.dispatchEvent(new Event('change', { bubbles: true }));
+            const settled = () => locationsIdle().then(() => new Promise(r => requestAnimationFrame(() => setTimeout(r, 0))));
+            (async () => {
+              const [a, b] = [country.options[1].value, country.options[2].value];
+              // load both country files first: the budget is for the page's own work, not the network
+              country.value = a; change(country); await settled();
+              country.value = b; change(country); await settled();
+              const t = performance.now();
+              country.value = a; change(country);
+              await settled();
+              done(state.options.length > 1 ? performance.now() - t : -1);
+            })().catch(e => done(-1));
+            """;
+
+    /** Times the next keydown on the field up to the first frame in which its error element shows a message. */
+    private static final String INSTALL_KEYSTROKE_PROBE = """
+            const field = document.getElementById(arguments[0]), error = document.getElementById(arguments[1]);
+            window.__errorShownMs = null;
+            field.addEventListener('keydown', e => {
+              const start = e.timeStamp;
+              const check = () => {
+                const shown = (error.textContent || '').trim() && getComputedStyle(error).display !== 'none';
+                if (shown) window.__errorShownMs = performance.now() - start;
+                else if (performance.now() - start > 5000) window.__errorShownMs = -1;
+                else requestAnimationFrame(check);
+              };
+              requestAnimationFrame(() => setTimeout(check, 0));
+            }, { once: true, capture: true });
+            """;
+
+    private static final String AWAIT_KEYSTROKE = """
+            const done = arguments[arguments.length - 1];
+            const poll = () => window.__errorShownMs !== null ? done(window.__errorShownMs) : setTimeout(poll, 5);
+            poll();
+            """;
+
+    /** Field, error element and a key that makes the empty field invalid. */
+    private static final String[][] KEYSTROKES = {
+            {"email", "emailError", "x"},
+            {"phone", "phoneError", "x"},
+            {"firstName", "firstNameError", " "},
+            {"confirmPassword", "confirmError", "x"}
+    };
+
+    @Test
+    @DisplayName("Loading, location selection and validation stay within budget on a throttled device")
+    public void testBudgetsOnThrottledDevice(WebDriver driver, PerformanceProbe probe, @PageUrl String page) {
+        DeviceProfile profile = DeviceProfile.from(System.getProperty("frugal.budget.profile", "mid-tier-mobile"));
+        probe.profile(profile);
+        probe.usage();
+
+        driver.get(page);
+        FormWaits.forLocations(driver, Duration.ofSeconds(25));
+        PerformanceProbe.Usage load = probe.usage();
+
+        JavascriptExecutor js = (JavascriptExecutor) driver;
+        double populateMs = ((Number) js.executeAsyncScript(POPULATE_SCRIPT)).doubleValue();
+        Assertions.assertTrue(populateMs >= 0, "state options were not rendered");
+
+        double keystrokeMs = 0;
+        for (String[] keystroke : KEYSTROKES) {
+            js.executeScript(INSTALL_KEYSTROKE_PROBE, keystroke[0], keystroke[1]);
+            driver.findElement(By.id(keystroke[0])).sendKeys(keystroke[2]);
+            double ms = ((Number) js.executeAsyncScript(AWAIT_KEYSTROKE)).doubleValue();
+            Assertions.assertTrue(ms >= 0, keystroke[1] + " was not shown after typing into " + keystroke[0]);
+            keystrokeMs = Math.max(keystrokeMs, ms);
+        }
+
+        new RegistrationForm(driver).fill(RegistrationData.valid());
+        FormWaits.forSubmitEnabled(driver, Duration.ofSeconds(25));
+        PerformanceProbe.Usage flow = probe.usage();
+        System.out.printf("Main thread on %s: load %s, interactions %s%n", profile, load, flow);
+
+        Map<PerformanceBudget, Double> measured = new LinkedHashMap<>();
+        measured.put(STATE_POPULATE, populateMs);
+        measured.put(KEYSTROKE_ERROR, keystrokeMs);
+        measured.put(LOAD_SCRIPT, load.scriptMs());
+        measured.put(FLOW_SCRIPT, flow.scriptMs());
+        measured.put(LONG_TASK, Math.max(load.maxLongTaskMs(), flow.maxLongTaskMs()));
+        PerformanceBudget.assertMet(profile, measured);
+    }
+}
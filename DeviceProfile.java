@@ -0,0 +1,79 @@
+package com.frugaltests;
+
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Named low-end device conditions, applied to a Chrome session through DevTools
+ * (Emulation.setCPUThrottlingRate and Network.emulateNetworkConditions). Network numbers follow the
+ * DevTools "Fast 3G" / "Slow 3G" presets: round-trip latency in ms, throughput in bytes per second.
+ *
+ * Select one for every browser test with -Dfrugal.device.profile=mid-tier-mobile (default desktop).
+ */
+public enum DeviceProfile {
+
+    DESKTOP(1, 0, -1, -1),
+    MID_TIER_MOBILE(4, 150, 1.6 * 1024 * 1024 / 8, 750 * 1024 / 8),
+    LOW_END_MOBILE(6, 400, 400 * 1024 / 8, 400 * 1024 / 8);
+
+    public static final String DEVICE_PROFILE = "frugal.device.profile";
+
+    private final int cpuSlowdown;
+    private final long latencyMs;
+    private final double downloadBytesPerSecond;
+    private final double uploadBytesPerSecond;
+
+    DeviceProfile(int cpuSlowdown, long latencyMs, double downloadBytesPerSecond, double uploadBytesPerSecond) {
+        this.cpuSlowdown = cpuSlowdown;
+        this.latencyMs = latencyMs;
+        this.downloadBytesPerSecond = downloadBytesPerSecond;
+        this.uploadBytesPerSecond = uploadBytesPerSecond;
+    }
+
+    /** Parses "mid-tier-mobile", "MID_TIER_MOBILE", ...; throws IllegalArgumentException listing the known names. */
+    public static DeviceProfile from(String name) {
+        String normalized = name.trim().toUpperCase(Locale.ROOT).replace('-', '_');
+        return Arrays.stream(values()).filter(p -> p.name().equals(normalized)).findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown device profile '" + name + "', expected one of "
+                        + Arrays.stream(values()).map(DeviceProfile::id).collect(Collectors.joining(", "))));
+    }
+
+    public String id() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    public int cpuSlowdown() {
+        return cpuSlowdown;
+    }
+
+    public boolean throttlesNetwork() {
+        return latencyMs > 0 || downloadBytesPerSecond >= 0;
+    }
+
+    /** Throttles CPU and network of the session; {@link #DESKTOP} removes any throttling. */
+    public void apply(HasCdp cdp) {
+        cdp.executeCdpCommand("Emulation.setCPUThrottlingRate", Map.of("rate", cpuSlowdown));
+        cdp.executeCdpCommand("Network.enable", Map.of());
+        cdp.executeCdpCommand("Network.emulateNetworkConditions", Map.of(
+                "offline", false,
+                "latency", latencyMs,
+                "downloadThroughput", downloadBytesPerSecond,
+                "uploadThroughput", uploadBytesPerSecond));
+    }
+
+    /** Puts a session back to unthrottled conditions before it returns to the pool. */
+    public static void reset(HasCdp cdp) {
+        DESKTOP.apply(cdp);
+        cdp.executeCdpCommand("Network.disable", Map.of());
+    }
+
+    @Override
+    public String toString() {
+        return id() + " (" + cpuSlowdown + "x CPU" + (throttlesNetwork() ? ", " + latencyMs + " ms RTT, "
+                + Math.round(downloadBytesPerSecond * 8 / 1024) + " kbit/s down" : "") + ")";
+    }
+}
@@ -0,0 +1,179 @@
+package com.frugaltests;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+import io.github.bonigarcia.wdm.config.Config;
+import io.github.bonigarcia.wdm.online.HttpClient;
+import io.github.bonigarcia.wdm.versions.VersionDetector;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared pool of warm ChromeDriver sessions.
+ * - lease() hands out an idle session (or starts a new one), release() resets the session and parks it again.
+ * - A session is only recycled (quit + replaced) when it fails the health check or the reset.
+ * - With reuse disabled every lease starts a fresh browser and every release quits it (the old behaviour).
+ * - Safe for parallel runs: a session is confined to the leasing test, and each worker thread prefers the
+ *   session it released last, so a worker keeps reusing "its" browser.
+ * - All sessions talk to one chromedriver process, provisioned from a local cache by {@link DriverProvisioner}.
+ */
+public final class DriverPool {
+
+    private static final Map<Boolean, DriverPool> SHARED = new ConcurrentHashMap<>();
+    private static volatile Boolean browserAvailable;
+    private static volatile String browserVersion;
+
+    private final boolean reuse;
+    private final BlockingDeque<WebDriver> idle = new LinkedBlockingDeque<>();
+    private final ThreadLocal<WebDriver> lastReleased = new ThreadLocal<>();
+    private final AtomicInteger created = new AtomicInteger();
+    private final AtomicInteger recycled = new AtomicInteger();
+    private volatile boolean closed;
+
+    DriverPool(boolean reuse) {
+        this.reuse = reuse;
+    }
+
+    /** JVM-wide pool for the given mode; its sessions are quit by a shutdown hook. */
+    public static DriverPool shared(boolean reuse) {
+        return SHARED.computeIfAbsent(reuse, r -> {
+            DriverPool pool = new DriverPool(r);
+            Runtime.getRuntime().addShutdownHook(new Thread(pool::shutdown, "driver-pool-shutdown"));
+            return pool;
+        });
+    }
+
+    /** True when a local Chrome install was found (checked once per JVM). */
+    public static boolean browserAvailable() {
+        if (browserAvailable == null) {
+            synchronized (DriverPool.class) {
+                if (browserAvailable == null) {
+                    browserAvailable = WebDriverManager.chromedriver().getBrowserPath().isPresent();
+                }
+            }
+        }
+        return browserAvailable;
+    }
+
+    /** Version of the local Chrome as reported by the shell (no browser is started), or "none". */
+    public static String browserVersion() {
+        if (browserVersion == null) {
+            synchronized (DriverPool.class) {
+                if (browserVersion == null) {
+                    Config config = new Config();
+                    browserVersion = !browserAvailable() ? "none" : new VersionDetector(config, new HttpClient(config))
+                            .getBrowserVersionFromTheShell("chrome").orElse("unknown");
+                }
+            }
+        }
+        return browserVersion;
+    }
+
+    public WebDriver lease() {
+        if (closed) throw new IllegalStateException("Driver pool is shut down");
+        WebDriver driver = lastReleased.get();
+        lastReleased.remove();
+        if (driver != null && idle.remove(driver)) {
+            if (isHealthy(driver)) return driver;
+            discard(driver);
+        }
+        while ((driver = idle.pollFirst()) != null) {
+            if (isHealthy(driver)) return driver;
+            discard(driver);
+        }
+        return newSession();
+    }
+
+    public void release(WebDriver driver) {
+        if (driver == null) return;
+        if (!reuse || closed) {
+            discard(driver);
+            return;
+        }
+        if (reset(driver)) {
+            idle.offerFirst(driver);
+            lastReleased.set(driver);
+        } else {
+            discard(driver);
+        }
+    }
+
+    public void shutdown() {
+        closed = true;
+        WebDriver driver;
+        while ((driver = idle.pollFirst()) != null) {
+            quitQuietly(driver);
+        }
+    }
+
+    public boolean reuses() {
+        return reuse;
+    }
+
+    public int sessionsCreated() {
+        return created.get();
+    }
+
+    public int sessionsRecycled() {
+        return recycled.get();
+    }
+
+    private WebDriver newSession() {
+        try (LatencyRecorder.Marker ignored = LatencyRecorder.step("driver.create")) {
+            WebDriver driver = new ChromeDriver(DriverProvisioner.sharedService(), new ChromeOptions());
+            driver.manage().window().maximize();
+            // no implicit wait: tests use explicit, event-driven waits (FormWaits) that must stay below the script timeout
+            driver.manage().timeouts().implicitlyWait(Duration.ZERO);
+            driver.manage().timeouts().scriptTimeout(Duration.ofSeconds(30));
+            created.incrementAndGet();
+            return driver;
+        }
+    }
+
+    /**
+     * Clears storage and cookies and leaves the page for about:blank, wherever the test navigated to;
+     * the next test loads the form itself, so it is loaded once per test. Returns false if the session did not survive it.
+     */
+    private boolean reset(WebDriver driver) {
+        try {
+            ((JavascriptExecutor) driver).executeScript(
+                    "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+            driver.manage().deleteAllCookies();
+            driver.navigate().to("about:blank");
+            return isHealthy(driver);
+        } catch (Exception e) {
+            System.err.println("Driver reset failed, recycling session: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean isHealthy(WebDriver driver) {
+        try {
+            Object pong = ((JavascriptExecutor) driver).executeScript("return 1;");
+            return pong != null && !driver.getWindowHandles().isEmpty();
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private void discard(WebDriver driver) {
+        if (reuse) recycled.incrementAndGet();
+        quitQuietly(driver);
+    }
+
+    private static void quitQuietly(WebDriver driver) {
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            System.err.println("Could not quit driver: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.frugaltests;
+
+import org.junit.jupiter.api.*;
+import org.junit.platform.launcher.Launcher;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherFactory;
+import org.junit.platform.launcher.listeners.SummaryGeneratingListener;
+import org.junit.platform.launcher.listeners.TestExecutionSummary;
+
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+
+/**
+ * Benchmark: tests/minute for the three registration flows with and without the driver pool.
+ * Run with: mvn -Pbenchmark test -Dtest=DriverPoolBenchmark [-Dfrugal.bench.rounds=5]
+ */
+@Tag("benchmark")
+public class DriverPoolBenchmark {
+
+    private static final Class<?>[] FLOWS = {
+            PositiveRegistrationTest.class, NegativeRegistrationTest.class, FlowCRegistrationTest.class
+    };
+
+    @Test
+    @DisplayName("Benchmark: tests/minute with and without the shared driver pool")
+    public void comparePooledAndUnpooled() {
+        Assumptions.assumeTrue(DriverPool.browserAvailable(), "Chrome is not installed on this machine");
+        int rounds = Integer.getInteger("frugal.bench.rounds", 3);
+
+        double unpooled = testsPerMinute(false, rounds);
+        double pooled = testsPerMinute(true, rounds);
+
+        System.out.printf("Driver pool benchmark (%d rounds x %d flows)%n", rounds, FLOWS.length);
+        System.out.printf("  launch/quit per test : %8.1f tests/min%n", unpooled);
+        System.out.printf("  pooled sessions      : %8.1f tests/min (%d sessions started)%n",
+                pooled, DriverPool.shared(true).sessionsCreated());
+        System.out.printf("  speedup              : %8.2fx%n", pooled / unpooled);
+    }
+
+    private double testsPerMinute(boolean pooled, int rounds) {
+        Launcher launcher = LauncherFactory.create();
+        long started = 0;
+        long tests = 0;
+        for (int i = 0; i <= rounds; i++) {
+            // round 0 is a warm-up (driver binary resolution, first browser start)
+            if (i == 1) {
+                started = System.nanoTime();
+                tests = 0;
+            }
+            LauncherDiscoveryRequest request = LauncherDiscoveryRequestBuilder.request()
+                    .selectors(selectClass(FLOWS[0]), selectClass(FLOWS[1]), selectClass(FLOWS[2]))
+                    .configurationParameter(DriverPoolExtension.POOL_ENABLED, String.valueOf(pooled))
+                    // every round has to run the flows, not skip them as passed
+                    .configurationParameter(ResultCacheExtension.CACHE_ENABLED, "false")
+                    .build();
+            SummaryGeneratingListener listener = new SummaryGeneratingListener();
+            launcher.execute(request, listener);
+            TestExecutionSummary summary = listener.getSummary();
+            tests += summary.getTestsSucceededCount() + summary.getTestsFailedCount();
+            summary.getFailures().forEach(f ->
+                    System.err.println("Flow failed during benchmark: " + f.getTestIdentifier().getDisplayName()
+                            + " : " + f.getException()));
+        }
+        Assertions.assertTrue(tests > 0, "no flow ran during the " + (pooled ? "pooled" : "unpooled") + " rounds");
+        double minutes = (System.nanoTime() - started) / 60e9;
+        return tests / minutes;
+    }
+}
@@ -0,0 +1,129 @@
+package com.frugaltests;
+
+import org.junit.jupiter.api.extension.ConditionEvaluationResult;
+import org.junit.jupiter.api.extension.ExecutionCondition;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolutionException;
+import org.junit.jupiter.api.extension.ParameterResolver;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+
+/**
+ * JUnit 5 extension that injects a leased {@link WebDriver} into test methods.
+ * Tests are skipped (not failed) on machines without Chrome.
+ * The session goes back to the {@link DriverPool} once the test (including @AfterEach) has finished.
+ * When the test is timed by {@link TimingExtension}, the injected driver is decorated with a {@link TimingListener}.
+ * A Chrome session gets a {@link PerformanceProbe} for the duration of the test when the test declares one as a
+ * parameter or -Dfrugal.device.profile selects a throttled {@link DeviceProfile}; unthrottled tests that do not
+ * ask for it skip the extra DevTools round trips.
+ *
+ * Pooling is on by default; run with -Dfrugal.pool.enabled=false (or the same configuration
+ * parameter) to get a fresh browser per test.
+ */
+public class DriverPoolExtension implements ExecutionCondition, ParameterResolver {
+
+    public static final String POOL_ENABLED = "frugal.pool.enabled";
+
+    private static final ExtensionContext.Namespace NAMESPACE =
+            ExtensionContext.Namespace.create(DriverPoolExtension.class);
+
+    @Override
+    public ConditionEvaluationResult evaluateExecutionCondition(ExtensionContext context) {
+        return DriverPool.browserAvailable()
+                ? ConditionEvaluationResult.enabled("Chrome found")
+                : ConditionEvaluationResult.disabled("Chrome is not installed on this machine");
+    }
+
+    @Override
+    public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        Class<?> type = parameterContext.getParameter().getType();
+        return (type == WebDriver.class || type == PerformanceProbe.class)
+                && parameterContext.getDeclaringExecutable() instanceof java.lang.reflect.Method;
+    }
+
+    @Override
+    public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        ExtensionContext.Store store = extensionContext.getStore(NAMESPACE);
+        Lease lease = store.getOrComputeIfAbsent(Lease.class,
+                k -> new Lease(pool(extensionContext), profile(extensionContext)), Lease.class);
+        if (parameterContext.getParameter().getType() == PerformanceProbe.class) {
+            PerformanceProbe probe = lease.probe();
+            if (probe == null) throw new ParameterResolutionException("The session has no DevTools connection");
+            return probe;
+        }
+        return lease.driver;
+    }
+
+    /** The undecorated session leased by the current test, or null if it did not ask for one. */
+    static WebDriver session(ExtensionContext context) {
+        Lease lease = context.getStore(NAMESPACE).get(Lease.class, Lease.class);
+        return lease == null ? null : lease.session;
+    }
+
+    /** The probe on the current test's session, or null if none was attached. */
+    static PerformanceProbe probe(ExtensionContext context) {
+        Lease lease = context.getStore(NAMESPACE).get(Lease.class, Lease.class);
+        return lease == null ? null : lease.probe;
+    }
+
+    static DriverPool pool(ExtensionContext context) {
+        boolean enabled = context.getConfigurationParameter(POOL_ENABLED).map(Boolean::parseBoolean).orElse(true);
+        return DriverPool.shared(enabled);
+    }
+
+    static DeviceProfile profile(ExtensionContext context) {
+        return context.getConfigurationParameter(DeviceProfile.DEVICE_PROFILE).map(DeviceProfile::from)
+                .orElse(DeviceProfile.DESKTOP);
+    }
+
+    /** Releases the session when the test's extension context is closed. */
+    private static final class Lease implements ExtensionContext.Store.CloseableResource {
+        private final DriverPool pool;
+        private final DeviceProfile profile;
+        private final WebDriver session;
+        private final WebDriver driver;
+        private volatile PerformanceProbe probe;
+
+        Lease(DriverPool pool, DeviceProfile profile) {
+            this.pool = pool;
+            this.profile = profile;
+            try (LatencyRecorder.Marker ignored = LatencyRecorder.step("driver.lease")) {
+                this.session = pool.lease();
+            }
+            try {
+                if (profile != DeviceProfile.DESKTOP) probe();
+                LatencyRecorder recorder = LatencyRecorder.current();
+                this.driver = recorder == null
+                        ? session
+                        : new EventFiringDecorator<WebDriver>(new TimingListener(recorder)).decorate(session);
+            } catch (RuntimeException e) {
+                // not in the store yet, so close() would never run
+                pool.release(session);
+                throw e;
+            }
+        }
+
+        /** The probe on this session, attached on first use; null without DevTools. */
+        synchronized PerformanceProbe probe() {
+            if (probe == null && session instanceof HasCdp cdp) {
+                try (LatencyRecorder.Marker ignored = LatencyRecorder.step("probe.attach")) {
+                    probe = PerformanceProbe.attach(cdp, profile);
+                }
+            }
+            return probe;
+        }
+
+        @Override
+        public void close() {
+            try {
+                if (probe != null) probe.close();
+            } catch (Exception e) {
+                System.err.println("Could not detach the performance probe: " + e.getMessage());
+            } finally {
+                pool.release(session);
+            }
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.frugaltests;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+import org.openqa.selenium.chrome.ChromeDriverService;
+import org.openqa.selenium.net.PortProber;
+import org.openqa.selenium.os.ExecutableFinder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.function.Supplier;
+
+/**
+ * Provides the chromedriver binary without resolving it on every JVM start:
+ * - the binary is pinned in a local cache, one directory per Chrome major version
+ *   ({@code <frugal.driver.cache>/<major>/chromedriver}, default ~/.cache/frugal-tests/chromedriver);
+ * - on a cache miss it is copied from a pre-seeded directory with the same layout (-Dfrugal.driver.seed),
+ *   and only then downloaded through WebDriverManager, unless -Dfrugal.driver.offline=true;
+ * - -Dwebdriver.chrome.driver=&lt;path&gt; still wins over all of them.
+ * {@link #sharedService()} starts one chromedriver process per JVM that all {@link DriverPool} sessions use.
+ */
+public final class DriverProvisioner {
+
+    public static final String CACHE_DIR = "frugal.driver.cache";
+    public static final String SEED_DIR = "frugal.driver.seed";
+    public static final String OFFLINE = "frugal.driver.offline";
+
+    static final String DRIVER_FILE = System.getProperty("os.name", "").startsWith("Windows") ? "chromedriver.exe" : "chromedriver";
+    static final String INFO_FILE = "driver.properties";
+
+    /** Where the driver came from: the webdriver.chrome.driver property, the cache, the seed directory or a download. */
+    public record Provisioned(Path driver, String browserVersion, String source, Duration took) {
+    }
+
+    /** Fetches a chromedriver matching a Chrome major version and returns the downloaded binary. */
+    @FunctionalInterface
+    interface Downloader {
+        Path download(String majorVersion) throws IOException;
+    }
+
+    private static volatile SharedService shared;
+    private static volatile Provisioned sharedProvisioned;
+
+    private final Path explicitDriver;
+    private final Path cacheDir;
+    private final Path seedDir;
+    private final boolean offline;
+    private final Supplier<String> browserVersion;
+    private final Downloader downloader;
+
+    /** {@code explicitDriver} (webdriver.chrome.driver) and {@code seedDir} may be null. */
+    DriverProvisioner(Path explicitDriver, Path cacheDir, Path seedDir, boolean offline, Supplier<String> browserVersion,
+                      Downloader downloader) {
+        this.explicitDriver = explicitDriver;
+        this.cacheDir = cacheDir;
+        this.seedDir = seedDir;
+        this.offline = offline;
+        this.browserVersion = browserVersion;
+        this.downloader = downloader;
+    }
+
+    public static DriverProvisioner fromSystemProperties() {
+        Path cache = Path.of(System.getProperty(CACHE_DIR,
+                Path.of(System.getProperty("user.home"), ".cache", "frugal-tests", "chromedriver").toString()));
+        String seed = System.getProperty(SEED_DIR);
+        String explicit = System.getProperty(ChromeDriverService.CHROME_DRIVER_EXE_PROPERTY);
+        return new DriverProvisioner(explicit == null ? null : Path.of(explicit), cache, seed == null ? null : Path.of(seed),
+                Boolean.getBoolean(OFFLINE), DriverPool::browserVersion, DriverProvisioner::downloadWithWebDriverManager);
+    }
+
+    /** Cache key of a Chrome version: chromedriver is released per major version. */
+    static String major(String version) {
+        int dot = version.indexOf('.');
+        return dot < 0 ? version : version.substring(0, dot);
+    }
+
+    /** Resolves the driver binary; throws IllegalStateException when it cannot be found (offline) or fetched. */
+    public Provisioned provision() {
+        long start = System.nanoTime();
+        String version = browserVersion.get();
+        if (explicitDriver != null && Files.isRegularFile(explicitDriver)) {
+            return provisioned(explicitDriver, version, "property", start);
+        }
+        if (version == null || version.equals("none") || version.equals("unknown")) {
+            throw new IllegalStateException("Cannot provision chromedriver: Chrome version is " + version);
+        }
+        String key = major(version);
+        Path cached = cacheDir.resolve(key).resolve(DRIVER_FILE);
+        if (Files.isRegularFile(cached)) return provisioned(cached, version, "cache", start);
+
+        Path seeded = seedDir == null ? null : seedDir.resolve(key).resolve(DRIVER_FILE);
+        try {
+            if (seeded != null && Files.isRegularFile(seeded)) {
+                return provisioned(pin(seeded, cached, version, "seed"), version, "seed", start);
+            }
+            if (offline) {
+                throw new IllegalStateException("No chromedriver for Chrome " + key + " in " + cacheDir
+                        + (seedDir == null ? "" : " or " + seedDir) + ", and downloads are off (-D" + OFFLINE + "=true)");
+            }
+            return provisioned(pin(downloader.download(key), cached, version, "download"), version, "download", start);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not provision chromedriver for Chrome " + version, e);
+        }
+    }
+
+    /**
+     * The chromedriver process shared by all sessions of this JVM, started on first use and stopped by a
+     * shutdown hook. Quitting a session does not stop it.
+     */
+    public static ChromeDriverService sharedService() {
+        if (shared == null) {
+            synchronized (DriverProvisioner.class) {
+                if (shared == null) {
+                    try (LatencyRecorder.Marker ignored = LatencyRecorder.step("driver.provision")) {
+                        sharedProvisioned = fromSystemProperties().provision();
+                        SharedService service = SharedService.start(sharedProvisioned.driver());
+                        Runtime.getRuntime().addShutdownHook(new Thread(service::shutdown, "chromedriver-shutdown"));
+                        shared = service;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Could not start chromedriver", e);
+                    }
+                }
+            }
+        }
+        return shared;
+    }
+
+    /** How the shared service's driver was provisioned, or null before the first session. */
+    public static Provisioned sharedProvisioned() {
+        return sharedProvisioned;
+    }
+
+    /** Copies the binary into the cache atomically, so concurrent JVMs never see a half-written driver. */
+    private static Path pin(Path source, Path target, String version, String origin) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path tmp = Files.createTempFile(target.getParent(), DRIVER_FILE, ".tmp");
+        try {
+            Files.copy(source, tmp, StandardCopyOption.REPLACE_EXISTING);
+            tmp.toFile().setExecutable(true);
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        Properties info = new Properties();
+        info.setProperty("chromeVersion", version);
+        info.setProperty("source", origin + " " + source.toAbsolutePath());
+        info.setProperty("pinnedAt", Instant.now().toString());
+        try (OutputStream out = Files.newOutputStream(target.resolveSibling(INFO_FILE))) {
+            info.store(out, "chromedriver pinned by DriverProvisioner");
+        }
+        return target;
+    }
+
+    private static Provisioned provisioned(Path driver, String version, String source, long startNanos) {
+        return new Provisioned(driver, version, source, Duration.ofNanos(System.nanoTime() - startNanos));
+    }
+
+    private static Path downloadWithWebDriverManager(String majorVersion) {
+        WebDriverManager manager = WebDriverManager.chromedriver().browserVersion(majorVersion).avoidExport();
+        manager.setup();
+        String path = manager.getDownloadedDriverPath();
+        if (path == null) {
+            path = new ExecutableFinder().find(DRIVER_FILE);
+            if (path == null) throw new IllegalStateException("WebDriverManager did not resolve chromedriver " + majorVersion);
+        }
+        return Path.of(path);
+    }
+
+    /** A ChromeDriverService that outlives the sessions using it: stop() is a no-op, shutdown() stops it. */
+    static final class SharedService extends ChromeDriverService {
+
+        private SharedService(Path driver, int port) throws IOException {
+            super(driver.toFile(), port, Duration.ofSeconds(20), List.of("--port=" + port), Map.of());
+        }
+
+        static SharedService start(Path driver) throws IOException {
+            SharedService service = new SharedService(driver, PortProber.findFreePort());
+            service.start();
+            return service;
+        }
+
+        @Override
+        public void stop() {
+            // called by every session's quit(); the process stays up for the next session
+        }
+
+        void shutdown() {
+            super.stop();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.frugaltests;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+import org.junit.jupiter.api.*;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
+import org.openqa.selenium.chrome.ChromeOptions;
+
+/**
+ * Benchmark: driver startup cost per test class with the previous per-class setup
+ * (WebDriverManager.chromedriver().setup(), then a session with its own chromedriver process) against the
+ * cached driver and the shared ChromeDriverService. Browser start is part of both, so the difference is what
+ * the suite saves per class.
+ * Run with: mvn -Pbenchmark test -Dtest=DriverProvisionerBenchmark [-Dfrugal.bench.classes=8]
+ */
+@Tag("benchmark")
+public class DriverProvisionerBenchmark {
+
+    @Test
+    @DisplayName("Benchmark: per-class WebDriverManager setup vs cached driver and shared service")
+    public void comparePerClassSetupAndProvisioner() {
+        Assumptions.assumeTrue(DriverPool.browserAvailable(), "Chrome is not installed on this machine");
+        int classes = Integer.getInteger("frugal.bench.classes", 8);
+
+        // warm-up: pins the driver in the cache (downloads at most once) and starts the shared service
+        ChromeDriverService service = DriverProvisioner.sharedService();
+        DriverProvisioner.Provisioned pinned = DriverProvisioner.sharedProvisioned();
+
+        long perClassNanos = 0;
+        long provisionedNanos = 0;
+        for (int i = 0; i < classes; i++) {
+            long start = System.nanoTime();
+            WebDriverManager.chromedriver().setup();
+            new ChromeDriver().quit();
+            perClassNanos += System.nanoTime() - start;
+            // setup() exported webdriver.chrome.driver, which the provisioner would take as an explicit path
+            System.clearProperty(ChromeDriverService.CHROME_DRIVER_EXE_PROPERTY);
+
+            start = System.nanoTime();
+            DriverProvisioner.fromSystemProperties().provision();
+            WebDriver session = new ChromeDriver(service, new ChromeOptions());
+            session.quit();
+            provisionedNanos += System.nanoTime() - start;
+        }
+
+        double perClass = perClassNanos / 1e6 / classes;
+        double provisioned = provisionedNanos / 1e6 / classes;
+        System.out.printf("Driver provisioning benchmark (%d classes, Chrome %s, driver from %s: %s)%n",
+                classes, pinned.browserVersion(), pinned.source(), pinned.driver());
+        System.out.printf("  per-class WebDriverManager setup : %8.1f ms/class%n", perClass);
+        System.out.printf("  cached driver, shared service    : %8.1f ms/class%n", provisioned);
+        System.out.printf("  saved                            : %8.1f ms/class, %.1f s for %d classes%n",
+                perClass - provisioned, (perClassNanos - provisionedNanos) / 1e9, classes);
+    }
+}
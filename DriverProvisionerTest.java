@@ -0,0 +1,77 @@
+package com.frugaltests;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Driver provisioning without a browser: fake Chrome versions and a fake download, real cache and seed directories.
+ */
+public class DriverProvisionerTest {
+
+    private final List<String> downloads = new ArrayList<>();
+
+    @Test
+    @DisplayName("A driver is downloaded once per Chrome major version and then served from the cache")
+    public void testCachesPerMajorVersion(@TempDir Path cache, @TempDir Path downloadDir) throws Exception {
+        AtomicReference<String> chrome = new AtomicReference<>("118.0.5993.70");
+        DriverProvisioner provisioner = new DriverProvisioner(null, cache, null, false, chrome::get, fakeDownload(downloadDir));
+
+        DriverProvisioner.Provisioned first = provisioner.provision();
+        Assertions.assertEquals("download", first.source());
+        Assertions.assertEquals(cache.resolve("118").resolve(DriverProvisioner.DRIVER_FILE), first.driver());
+        Assertions.assertEquals("driver 118", Files.readString(first.driver()));
+        Assertions.assertTrue(Files.readString(cache.resolve("118").resolve(DriverProvisioner.INFO_FILE)).contains("118.0.5993.70"));
+
+        chrome.set("118.0.5993.117");
+        Assertions.assertEquals("cache", provisioner.provision().source(), "a patch update keeps the pinned driver");
+        chrome.set("119.0.6045.105");
+        Assertions.assertEquals("download", provisioner.provision().source());
+        Assertions.assertEquals(List.of("118", "119"), downloads);
+
+        Assertions.assertEquals("cache", new DriverProvisioner(null, cache, null, true, chrome::get, fakeDownload(downloadDir))
+                .provision().source(), "cache hits work offline");
+    }
+
+    @Test
+    @DisplayName("Offline, the driver comes from the seed directory or provisioning fails with a clear message")
+    public void testOfflineSeed(@TempDir Path cache, @TempDir Path seed) throws Exception {
+        Files.createDirectories(seed.resolve("120"));
+        Files.writeString(seed.resolve("120").resolve(DriverProvisioner.DRIVER_FILE), "seeded 120");
+
+        DriverProvisioner.Provisioned seeded = new DriverProvisioner(null, cache, seed, true, () -> "120.0.6099.71",
+                major -> { throw new AssertionError("no downloads offline"); }).provision();
+        Assertions.assertEquals("seed", seeded.source());
+        Assertions.assertEquals("seeded 120", Files.readString(cache.resolve("120").resolve(DriverProvisioner.DRIVER_FILE)));
+        Assertions.assertTrue(Files.isExecutable(seeded.driver()) || !Files.getFileStore(cache).supportsFileAttributeView("posix"));
+
+        IllegalStateException missing = Assertions.assertThrows(IllegalStateException.class,
+                () -> new DriverProvisioner(null, cache, seed, true, () -> "121.0.1", major -> null).provision());
+        Assertions.assertTrue(missing.getMessage().contains("No chromedriver for Chrome 121"), missing.getMessage());
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> new DriverProvisioner(null, cache, seed, false, () -> "none", major -> null).provision());
+    }
+
+    @Test
+    @DisplayName("An explicit webdriver.chrome.driver path wins")
+    public void testExplicitDriver(@TempDir Path cache, @TempDir Path dir) throws Exception {
+        Path explicit = Files.writeString(dir.resolve("my-chromedriver"), "explicit");
+        DriverProvisioner.Provisioned provisioned = new DriverProvisioner(explicit, cache, null, true, () -> "118.0.1",
+                major -> null).provision();
+        Assertions.assertEquals("property", provisioned.source());
+        Assertions.assertEquals(explicit, provisioned.driver());
+        Assertions.assertEquals("118", DriverProvisioner.major("118.0.1"));
+    }
+
+    private DriverProvisioner.Downloader fakeDownload(Path dir) {
+        return major -> {
+            downloads.add(major);
+            return Files.writeString(dir.resolve("download-" + major), "driver " + major);
+        };
+    }
+}
@@ -0,0 +1,121 @@
+package com.frugaltests;
+
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records how long every test method took (including @TestFactory methods with their dynamic tests) and merges
+ * the times into {@code <frugal.durations.file>}, default .test-cache/durations.properties, keyed by unique id.
+ * A new time is averaged with the recorded one, so one slow run does not reshuffle the shards.
+ * {@link ShardFilter} plans shards from this file. Registered for every launcher through META-INF/services;
+ * -Dfrugal.durations.enabled=false switches it off. Aborted and skipped tests keep their previous time.
+ */
+public class DurationRecorder implements TestExecutionListener {
+
+    public static final String DURATIONS_FILE = "frugal.durations.file";
+    public static final String DURATIONS_ENABLED = "frugal.durations.enabled";
+
+    private final Map<String, Long> started = new ConcurrentHashMap<>();
+    private final Map<String, Double> measured = new ConcurrentHashMap<>();
+    private volatile TestPlan plan;
+
+    /** The durations file given by -Dfrugal.durations.file. */
+    public static Path file() {
+        return Path.of(System.getProperty(DURATIONS_FILE, ".test-cache/durations.properties"));
+    }
+
+    @Override
+    public void testPlanExecutionStarted(TestPlan testPlan) {
+        plan = testPlan;
+        measured.clear();
+    }
+
+    @Override
+    public void executionStarted(TestIdentifier id) {
+        if (recordable(id)) started.put(id.getUniqueId(), System.nanoTime());
+    }
+
+    @Override
+    public void executionFinished(TestIdentifier id, TestExecutionResult result) {
+        Long start = started.remove(id.getUniqueId());
+        if (start == null || result.getStatus() == TestExecutionResult.Status.ABORTED) return;
+        measured.put(id.getUniqueId(), (System.nanoTime() - start) / 1e6);
+    }
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan) {
+        boolean enabled = testPlan.getConfigurationParameters().getBoolean(DURATIONS_ENABLED).orElse(true);
+        if (!enabled || measured.isEmpty()) return;
+        Path file = testPlan.getConfigurationParameters().get(DURATIONS_FILE).map(Path::of).orElse(file());
+        try {
+            merge(file, measured);
+        } catch (IOException e) {
+            System.err.println("Could not record test durations in " + file + ": " + e.getMessage());
+        }
+    }
+
+    /** Test methods of top-level classes; the sample classes nested in tests are never run on their own. */
+    private boolean recordable(TestIdentifier id) {
+        if (!(id.getSource().orElse(null) instanceof MethodSource)) return false;
+        return plan != null && plan.getParent(id).flatMap(TestIdentifier::getSource)
+                .filter(source -> source instanceof ClassSource c && !c.getClassName().contains("$"))
+                .isPresent();
+    }
+
+    /** Recorded milliseconds per unique id; empty if the file does not exist yet. */
+    public static Map<String, Double> load(Path file) throws IOException {
+        Map<String, Double> durations = new TreeMap<>();
+        if (!Files.exists(file)) return durations;
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+        }
+        properties.forEach((id, ms) -> durations.put((String) id, Double.parseDouble((String) ms)));
+        return durations;
+    }
+
+    /**
+     * Averages the new times into the file. Parallel JVMs (shards) merge one after the other under a file lock;
+     * the file itself is replaced atomically, so readers never see a partial write.
+     */
+    static void merge(Path file, Map<String, Double> times) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        try (FileChannel lockChannel = FileChannel.open(dir.resolve(file.getFileName() + ".lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock ignored = lockChannel.lock()) {
+            Map<String, Double> durations = load(file);
+            times.forEach((id, ms) -> durations.merge(id, ms, (old, now) -> (old + now) / 2));
+            Properties properties = new Properties();
+            durations.forEach((id, ms) -> properties.setProperty(id, String.format(Locale.ROOT, "%.1f", ms)));
+            Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+            try {
+                try (OutputStream out = Files.newOutputStream(tmp)) {
+                    properties.store(out, "Test durations in ms, averaged over runs (DurationRecorder)");
+                }
+                Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.frugaltests;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * One-shot snapshot of the form's validation state, read with a single executeScript call:
+ * visibility and text of every *Error element, the submitBtn disabled flag, terms checkbox,
+ * the password strength meter and whether the success message is shown.
+ */
+public record FormState(
+        Map<String, ErrorState> errors,
+        boolean submitDisabled,
+        boolean termsAccepted,
+        String strength,
+        String meterWidth,
+        boolean successShown) {
+
+    public record ErrorState(boolean visible, String text) {
+        /** Visible with non-empty text, the same check as errorShown() in the page. */
+        public boolean shown() {
+            return visible && !text.isEmpty();
+        }
+    }
+
+    /**
+     * Defines {@code snapshot()} in the page, plus the predicates it is built from ({@code errorState(el)},
+     * {@code errorShown(id)}, {@code successShown()}); {@link FormWaits} waits on the same predicates.
+     */
+    static final String SNAPSHOT_FUNCTION = """
+            const errorState = e => {
+              const style = window.getComputedStyle(e);
+              return { visible: style.display !== 'none' && style.visibility !== 'hidden',
+                       text: (e.textContent || '').trim() };
+            };
+            const errorShown = id => {
+              const e = document.getElementById(id);
+              if (!e) return false;
+              const s = errorState(e);
+              return s.visible && s.text !== '';
+            };
+            const successShown = () => {
+              const success = document.querySelector('.success-msg');
+              return !!(success && success.getClientRects().length > 0);
+            };
+            const snapshot = () => {
+              const errors = {};
+              document.querySelectorAll('[id$="Error"]').forEach(e => { errors[e.id] = errorState(e); });
+              const submit = document.getElementById('submitBtn');
+              const terms = document.getElementById('terms');
+              const meter = document.getElementById('meterBar');
+              const strength = document.getElementById('strength');
+              return {
+                errors: errors,
+                submitDisabled: !!(submit && submit.disabled),
+                termsAccepted: !!(terms && terms.checked),
+                strength: strength ? strength.textContent : '',
+                meterWidth: meter ? meter.style.width : '',
+                successShown: successShown()
+              };
+            };
+            """;
+
+    public static FormState capture(WebDriver driver) {
+        Object raw = ((JavascriptExecutor) driver).executeScript(SNAPSHOT_FUNCTION + "return snapshot();");
+        return from(raw);
+    }
+
+    @SuppressWarnings("unchecked")
+    static FormState from(Object raw) {
+        Map<String, Object> map = (Map<String, Object>) raw;
+        Map<String, ErrorState> errors = new LinkedHashMap<>();
+        ((Map<String, Map<String, Object>>) map.get("errors")).forEach((id, e) ->
+                errors.put(id, new ErrorState(Boolean.TRUE.equals(e.get("visible")), String.valueOf(e.get("text")))));
+        return new FormState(errors,
+                Boolean.TRUE.equals(map.get("submitDisabled")),
+                Boolean.TRUE.equals(map.get("termsAccepted")),
+                String.valueOf(map.get("strength")),
+                String.valueOf(map.get("meterWidth")),
+                Boolean.TRUE.equals(map.get("successShown")));
+    }
+
+    public ErrorState error(String id) {
+        return errors.getOrDefault(id, new ErrorState(false, ""));
+    }
+
+    public boolean hasError(String id) {
+        return error(id).shown();
+    }
+
+    public String errorText(String id) {
+        return error(id).text();
+    }
+
+    /** Ids of all errors currently shown. */
+    public List<String> shownErrors() {
+        return errors.entrySet().stream()
+                .filter(e -> e.getValue().shown())
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public String toString() {
+        String shown = errors.entrySet().stream()
+                .filter(e -> e.getValue().shown())
+                .map(e -> e.getKey() + "='" + e.getValue().text() + "'")
+                .collect(Collectors.joining(", "));
+        return "FormState{errors=[" + shown + "], submitDisabled=" + submitDisabled + ", termsAccepted=" + termsAccepted
+                + ", strength=" + strength + ", successShown=" + successShown + "}";
+    }
+}
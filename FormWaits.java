@@ -0,0 +1,87 @@
+package com.frugaltests;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Event-driven waits on the form. Instead of polling from Java, one executeAsyncScript call installs a
+ * MutationObserver that resolves as soon as the condition holds and returns the {@link FormState}
+ * snapshot taken at that moment. Errors and success are checked with the snapshot's own predicates, so a
+ * resolved wait always agrees with the returned state.
+ *
+ * Timeouts must stay below the session's script timeout (30s, set by {@link DriverPool}).
+ */
+public final class FormWaits {
+
+    private static final String AWAIT_SCRIPT = FormState.SNAPSHOT_FUNCTION + """
+            const spec = arguments[0];
+            const done = arguments[arguments.length - 1];
+            const satisfied = () => {
+              if (spec.errors && !spec.errors.every(errorShown)) return false;
+              if (spec.submitEnabled) {
+                const b = document.getElementById('submitBtn');
+                if (!b || b.disabled) return false;
+              }
+              if (spec.success && !successShown()) return false;
+              if (spec.locations) {
+                const c = document.getElementById('country'), f = document.getElementById('regForm');
+                if (!c || c.options.length < 2 || !f || f.hasAttribute('aria-busy')) return false;
+              }
+              return true;
+            };
+            if (satisfied()) { done({ ok: true, state: snapshot() }); return; }
+            let timer = null;
+            const observer = new MutationObserver(() => {
+              if (!satisfied()) return;
+              observer.disconnect(); clearTimeout(timer);
+              done({ ok: true, state: snapshot() });
+            });
+            observer.observe(document.body,
+                { subtree: true, childList: true, characterData: true, attributes: true,
+                  attributeFilter: ['style', 'class', 'disabled', 'aria-busy'] });
+            timer = setTimeout(() => { observer.disconnect(); done({ ok: false, state: snapshot() }); }, spec.timeoutMs);
+            """;
+
+    private FormWaits() {
+    }
+
+    /** Waits until every given *Error element is displayed with text. */
+    public static FormState forErrors(WebDriver driver, Duration timeout, String... errorIds) {
+        return await(driver, timeout, Map.of("errors", List.of(errorIds)), "errors " + List.of(errorIds), "wait.forErrors");
+    }
+
+    public static FormState forSubmitEnabled(WebDriver driver, Duration timeout) {
+        return await(driver, timeout, Map.of("submitEnabled", true), "submitBtn to be enabled", "wait.forSubmitEnabled");
+    }
+
+    public static FormState forSuccess(WebDriver driver, Duration timeout) {
+        return await(driver, timeout, Map.of("success", true), ".success-msg", "wait.forSuccess");
+    }
+
+    /** Waits until the country options are loaded and no location file is being fetched or rendered. */
+    public static FormState forLocations(WebDriver driver, Duration timeout) {
+        return await(driver, timeout, Map.of("locations", true), "location options", "wait.forLocations");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static FormState await(WebDriver driver, Duration timeout, Map<String, Object> condition, String description,
+                                   String step) {
+        Map<String, Object> spec = new HashMap<>(condition);
+        spec.put("timeoutMs", timeout.toMillis());
+        Map<String, Object> result;
+        try (LatencyRecorder.Marker ignored = LatencyRecorder.step(step)) {
+            result = (Map<String, Object>) ((JavascriptExecutor) driver).executeAsyncScript(AWAIT_SCRIPT, spec);
+        }
+        FormState state = FormState.from(result.get("state"));
+        if (!Boolean.TRUE.equals(result.get("ok"))) {
+            throw new TimeoutException("Timed out after " + timeout.toMillis() + "ms waiting for " + description + " | " + state);
+        }
+        return state;
+    }
+}
@@ -0,0 +1,71 @@
+package com.frugaltests;
+
+import java.util.SplittableRandom;
+
+/**
+ * Generates field values that sit close to the validation boundaries: short/long digit runs, stray '@' and '.',
+ * separators and the whitespace characters where JavaScript and Java disagree. Deterministic for a given seed.
+ * No CR/LF: browsers strip those from input values, so they could never reach validateField.
+ */
+final class FuzzInputs {
+
+    private static final String EMAIL_ALPHABET = "abcxyzABC019._-+@@..  \t\u00a0\u2028\u3000";
+    private static final String PHONE_ALPHABET = "0123456789012345678901234567890123456789+-  \t\u00a0\u2003x\u0663";
+    private static final String PASSWORD_ALPHABET = "abcdefXYZ0123456789@#!_ \u00e9";
+    private static final String[] DOMAINS = {
+            "example.com", "test.org", "mailinator.com", "TempMail.com", "yopmail.com", "10minutemail.com",
+            "disposable.com", "b.c", "x", "x.", ".x", "sub.tempmail.com"
+    };
+
+    private final SplittableRandom random;
+
+    FuzzInputs(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    String email() {
+        switch (random.nextInt(4)) {
+            case 0:
+                return chars(EMAIL_ALPHABET, random.nextInt(0, 16));
+            case 1:
+                return chars(EMAIL_ALPHABET, random.nextInt(1, 6)) + "@" + DOMAINS[random.nextInt(DOMAINS.length)];
+            default:
+                return chars("abc.xyz", random.nextInt(1, 8)) + "@" + chars(EMAIL_ALPHABET, random.nextInt(0, 8))
+                        + (random.nextBoolean() ? "." + chars("comorg", random.nextInt(0, 4)) : "");
+        }
+    }
+
+    String phone() {
+        if (random.nextInt(3) == 0) {
+            return chars(PHONE_ALPHABET, random.nextInt(0, 24));
+        }
+        StringBuilder sb = new StringBuilder();
+        if (random.nextInt(5) > 0) sb.append('+');
+        sb.append(digits(random.nextInt(0, 6)));
+        int sep = random.nextInt(6);
+        if (sep == 0) sb.append(' ');
+        else if (sep == 1) sb.append('-');
+        else if (sep == 2) sb.append('\u00a0');
+        sb.append(digits(random.nextInt(0, 17)));
+        if (random.nextInt(8) == 0) sb.append(random.nextBoolean() ? " " : "-").append(digits(random.nextInt(1, 5)));
+        return random.nextInt(10) == 0 ? " " + sb + " " : sb.toString();
+    }
+
+    String password() {
+        return chars(PASSWORD_ALPHABET, random.nextInt(0, 14));
+    }
+
+    boolean nextBoolean() {
+        return random.nextBoolean();
+    }
+
+    private String digits(int n) {
+        return chars("0123456789", n);
+    }
+
+    private String chars(String alphabet, int n) {
+        char[] out = new char[n];
+        for (int i = 0; i < n; i++) out[i] = alphabet.charAt(random.nextInt(alphabet.length()));
+        return new String(out);
+    }
+}
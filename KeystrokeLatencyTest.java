@@ -0,0 +1,109 @@
+package com.frugaltests;
+
+import org.junit.jupiter.api.*;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keystroke latency of the validation handlers on a throttled device (default mid-tier-mobile, 4x CPU slowdown).
+ * Each typed character is timed in the page from the first to the last input listener, i.e. all validation
+ * work one keystroke causes. The same keys are typed into the page as it was before the incremental engine
+ * (baseline/ on the test classpath, served by {@link StaticServer}), which shows what the engine saves.
+ *
+ * -Dfrugal.budget.profile selects the profile, -Dfrugal.budget.keystroke.p95.ms the p95 budget of the engine
+ * (default 50 ms, the RAIL budget for handling an input event).
+ */
+@RegistrationFlow
+public class KeystrokeLatencyTest {
+
+    private static final PerformanceBudget KEYSTROKE_P95 = PerformanceBudget.of("keystroke.p95", 50);
+
+    /** performance.now() is coarsened to 0.1 ms in pages without cross-origin isolation. */
+    private static final double TIMER_RESOLUTION_MS = 0.1;
+
+    /** index.html and script.js before the incremental validation engine; the styles are the current ones. */
+    private static final String BASELINE_PAGE = "baseline/index.html";
+
+    private static final String INSTALL_PROBE = """
+            window.__keystrokes = [];
+            window.addEventListener('input', () => { window.__inputStart = performance.now(); }, true);
+            window.addEventListener('input', () => { window.__keystrokes.push(performance.now() - window.__inputStart); });
+            // the baseline page has its locations inline; RegistrationForm waits on locationsIdle() of the lazy index
+            window.locationsIdle = window.locationsIdle || (() => Promise.resolve());
+            """;
+
+    private static final String CLEAR = """
+            const el = document.getElementById(arguments[0]);
+            el.value = ''; el.dispatchEvent(new Event('input', { bubbles: true }));
+            window.__keystrokes = [];
+            """;
+
+    private static final String TYPED_NAME = "Alexandria Catherine Montgomery-Smith";
+    private static final String TYPED_PASSWORD = "Abcd@1234!Long#Password";
+
+    @Test
+    @DisplayName("Typing stays within the keystroke budget on a throttled device")
+    public void testKeystrokeLatencyUnderThrottling(WebDriver driver, PerformanceProbe probe, @PageUrl String page) {
+        DeviceProfile profile = DeviceProfile.from(System.getProperty("frugal.budget.profile", "mid-tier-mobile"));
+        double[] engine = typeAndMeasure(driver, probe, profile, page);
+        Assertions.assertTrue(new RegistrationForm(driver).isSubmitEnabled(), "the form is valid again after typing");
+        double[] baseline = typeAndMeasure(driver, probe, profile, StaticServer.get().url(BASELINE_PAGE).toString());
+
+        System.out.printf("Keystroke latency on %s (%d keys): engine p50 %.3f ms, p95 %.3f ms;"
+                        + " baseline script.js p50 %.3f ms, p95 %.3f ms%n",
+                profile, engine.length, percentile(engine, 50), percentile(engine, 95),
+                percentile(baseline, 50), percentile(baseline, 95));
+
+        Assertions.assertEquals(TYPED_NAME.length() + TYPED_PASSWORD.length(), engine.length, "one sample per key");
+        Assertions.assertEquals(engine.length, baseline.length, "one baseline sample per key");
+        Assertions.assertTrue(percentile(engine, 50) <= percentile(baseline, 50) + TIMER_RESOLUTION_MS,
+                "incremental validation should not be slower than the baseline full scan");
+        PerformanceBudget.assertMet(profile, Map.of(KEYSTROKE_P95, percentile(engine, 95)));
+    }
+
+    /**
+     * Loads and fills the page unthrottled, then types into firstName and password on the profile;
+     * returns the per-keystroke handler time in ms.
+     */
+    @SuppressWarnings("unchecked")
+    private static double[] typeAndMeasure(WebDriver driver, PerformanceProbe probe, DeviceProfile profile, String url) {
+        probe.profile(DeviceProfile.DESKTOP);
+        driver.get(url);
+        JavascriptExecutor js = (JavascriptExecutor) driver;
+        js.executeScript(INSTALL_PROBE);
+        new RegistrationForm(driver).fill(RegistrationData.valid());
+        probe.profile(profile);
+
+        js.executeScript(CLEAR, "firstName");
+        WebElement firstName = driver.findElement(By.id("firstName"));
+        firstName.sendKeys(TYPED_NAME);
+        List<Number> samples = (List<Number>) js.executeScript("return window.__keystrokes;");
+
+        js.executeScript(CLEAR, "password");
+        driver.findElement(By.id("password")).sendKeys(TYPED_PASSWORD);
+        List<Number> passwordSamples = (List<Number>) js.executeScript("return window.__keystrokes;");
+
+        // the confirm field no longer matches: type it again so the form ends up valid
+        js.executeScript(CLEAR, "confirmPassword");
+        driver.findElement(By.id("confirmPassword")).sendKeys(TYPED_PASSWORD);
+
+        double[] out = new double[samples.size() + passwordSamples.size()];
+        int i = 0;
+        for (Number n : samples) out[i++] = n.doubleValue();
+        for (Number n : passwordSamples) out[i++] = n.doubleValue();
+        return out;
+    }
+
+    private static double percentile(double[] values, double p) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+}
@@ -0,0 +1,75 @@
+package com.frugaltests;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Latency of the steps of one test: WebDriver calls (recorded by {@link TimingListener}), session leases,
+ * waits and artifact captures, plus the Navigation/Paint Timing of the page under test.
+ * {@link TimingExtension} binds a recorder to the test thread; outside an instrumented test
+ * {@link #step(String)} does nothing, so page objects and helpers can mark steps unconditionally.
+ */
+public final class LatencyRecorder {
+
+    private static final ThreadLocal<LatencyRecorder> CURRENT = new ThreadLocal<>();
+    private static final Marker NO_OP = () -> { };
+
+    /** One timed step; start is relative to the beginning of the test. */
+    public record Step(String name, long startMicros, long durationMicros) {
+    }
+
+    /** Ends a step started with {@link #step(String)}; use it in try-with-resources. */
+    public interface Marker extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private final String test;
+    private final long origin = System.nanoTime();
+    private final List<Step> steps = new ArrayList<>();
+    private Map<String, Object> pageTiming = Map.of();
+
+    LatencyRecorder(String test) {
+        this.test = test;
+    }
+
+    /** Recorder of the test running on this thread, or null. */
+    static LatencyRecorder current() {
+        return CURRENT.get();
+    }
+
+    static void bind(LatencyRecorder recorder) {
+        if (recorder == null) CURRENT.remove(); else CURRENT.set(recorder);
+    }
+
+    /** Starts a named step on the current test's recorder. */
+    public static Marker step(String name) {
+        LatencyRecorder recorder = CURRENT.get();
+        if (recorder == null) return NO_OP;
+        long start = System.nanoTime();
+        return () -> recorder.record(name, start, System.nanoTime());
+    }
+
+    public String test() {
+        return test;
+    }
+
+    public synchronized void record(String name, long startNanos, long endNanos) {
+        steps.add(new Step(name, (startNanos - origin) / 1_000, (endNanos - startNanos) / 1_000));
+    }
+
+    public synchronized List<Step> steps() {
+        return List.copyOf(steps);
+    }
+
+    /** Navigation/Paint Timing entries (milliseconds since navigation start), empty if none were captured. */
+    public synchronized Map<String, Object> pageTiming() {
+        return pageTiming;
+    }
+
+    synchronized void pageTiming(Map<String, Object> timing) {
+        this.pageTiming = timing == null ? Map.of() : new LinkedHashMap<>(timing);
+    }
+}
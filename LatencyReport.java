@@ -0,0 +1,144 @@
+package com.frugaltests;
+
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Step latencies of all tests of one test class, written by {@link TimingExtension} as
+ * {@code <Class>.json} (every step of every test, page timings and the summary) and
+ * {@code <Class>.txt} (the percentile summary). Page timings that are durations ({@link #PAGE_DURATIONS}) are
+ * summarised as {@code page.<entry>} steps; the others (e.g. transferSize in bytes) are only in the JSON.
+ */
+final class LatencyReport {
+
+    /** Page timing entries in milliseconds: Navigation/Paint Timing and {@link PerformanceProbe.Usage}. */
+    static final Set<String> PAGE_DURATIONS = Set.of("responseStart", "responseEnd", "domInteractive", "domContentLoaded",
+            "load", "first-paint", "first-contentful-paint", "scriptDuration", "taskDuration", "longTaskTotal", "longTaskMax");
+
+    /** Percentiles in milliseconds over all occurrences of one step name. */
+    record Summary(int count, double p50, double p90, double p99, double max, double total) {
+        Map<String, Object> toJson() {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("count", count);
+            json.put("p50Ms", p50);
+            json.put("p90Ms", p90);
+            json.put("p99Ms", p99);
+            json.put("maxMs", max);
+            json.put("totalMs", total);
+            return json;
+        }
+    }
+
+    private record Entry(LatencyRecorder recorder, String status) {
+    }
+
+    private final String testClass;
+    private final List<Entry> entries = new ArrayList<>();
+
+    LatencyReport(String testClass) {
+        this.testClass = testClass;
+    }
+
+    synchronized void add(LatencyRecorder recorder, String status) {
+        entries.add(new Entry(recorder, status));
+    }
+
+    synchronized boolean isEmpty() {
+        return entries.stream().allMatch(e -> e.recorder().steps().isEmpty());
+    }
+
+    /** Summary per step name, sorted by name. */
+    synchronized Map<String, Summary> summary() {
+        Map<String, List<Long>> micros = new TreeMap<>();
+        for (Entry entry : entries) {
+            for (LatencyRecorder.Step step : entry.recorder().steps()) {
+                micros.computeIfAbsent(step.name(), k -> new ArrayList<>()).add(step.durationMicros());
+            }
+            entry.recorder().pageTiming().forEach((name, value) -> {
+                if (value instanceof Number n && PAGE_DURATIONS.contains(name)) {
+                    micros.computeIfAbsent("page." + name, k -> new ArrayList<>()).add(Math.round(n.doubleValue() * 1000));
+                }
+            });
+        }
+        Map<String, Summary> summary = new LinkedHashMap<>();
+        micros.forEach((name, values) -> summary.put(name, summarize(values)));
+        return summary;
+    }
+
+    static Summary summarize(List<Long> micros) {
+        long[] sorted = micros.stream().mapToLong(Long::longValue).sorted().toArray();
+        long total = 0;
+        for (long v : sorted) total += v;
+        return new Summary(sorted.length, ms(percentile(sorted, 50)), ms(percentile(sorted, 90)),
+                ms(percentile(sorted, 99)), ms(sorted[sorted.length - 1]), ms(total));
+    }
+
+    /** Nearest-rank percentile of an ascending array. */
+    static long percentile(long[] sorted, double p) {
+        int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+
+    /** Writes {@code <Class>.json} and {@code <Class>.txt} into the directory and returns the JSON file. */
+    synchronized Path writeTo(Path dir) throws IOException {
+        Map<String, Summary> summary = summary();
+        Files.createDirectories(dir);
+        Path json = dir.resolve(testClass + ".json");
+        Files.writeString(json, new Json().toJson(toJson(summary)));
+        Files.writeString(dir.resolve(testClass + ".txt"), format(summary));
+        return json;
+    }
+
+    synchronized String format(Map<String, Summary> summary) {
+        StringBuilder out = new StringBuilder();
+        out.append("Latency summary for ").append(testClass).append(" (").append(entries.size()).append(" tests)\n");
+        out.append(String.format("%-52s %6s %10s %10s %10s %10s %11s%n",
+                "step", "count", "p50 ms", "p90 ms", "p99 ms", "max ms", "total ms"));
+        summary.forEach((name, s) -> out.append(String.format("%-52s %6d %10.3f %10.3f %10.3f %10.3f %11.3f%n",
+                name, s.count(), s.p50(), s.p90(), s.p99(), s.max(), s.total())));
+        return out.toString();
+    }
+
+    private Map<String, Object> toJson(Map<String, Summary> summary) {
+        List<Map<String, Object>> tests = new ArrayList<>();
+        for (Entry entry : entries) {
+            List<Map<String, Object>> steps = new ArrayList<>();
+            for (LatencyRecorder.Step step : entry.recorder().steps()) {
+                Map<String, Object> json = new LinkedHashMap<>();
+                json.put("name", step.name());
+                json.put("startMs", ms(step.startMicros()));
+                json.put("durationMs", ms(step.durationMicros()));
+                steps.add(json);
+            }
+            Map<String, Object> test = new LinkedHashMap<>();
+            test.put("test", entry.recorder().test());
+            test.put("status", entry.status());
+            test.put("steps", steps);
+            test.put("pageTiming", entry.recorder().pageTiming());
+            tests.add(test);
+        }
+        Map<String, Object> summaryJson = new LinkedHashMap<>();
+        summary.forEach((name, s) -> summaryJson.put(name, s.toJson()));
+
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("testClass", testClass);
+        json.put("generatedAt", Instant.now().toString());
+        json.put("tests", tests);
+        json.put("summary", summaryJson);
+        return json;
+    }
+
+    private static double ms(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,77 @@
+package com.frugaltests;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import org.openqa.selenium.json.Json;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Step recording, percentiles and the JSON/text report, without a browser.
+ */
+public class LatencyReportTest {
+
+    @Test
+    @DisplayName("Nearest-rank percentiles")
+    public void testPercentiles() {
+        long[] sorted = new long[100];
+        for (int i = 0; i < sorted.length; i++) sorted[i] = i + 1;
+        Assertions.assertEquals(50, LatencyReport.percentile(sorted, 50));
+        Assertions.assertEquals(90, LatencyReport.percentile(sorted, 90));
+        Assertions.assertEquals(100, LatencyReport.percentile(sorted, 100));
+        Assertions.assertEquals(7, LatencyReport.percentile(new long[]{7}, 99));
+
+        LatencyReport.Summary summary = LatencyReport.summarize(List.of(3000L, 1000L, 2000L));
+        Assertions.assertEquals(new LatencyReport.Summary(3, 2.0, 3.0, 3.0, 3.0, 6.0), summary);
+    }
+
+    @Test
+    @DisplayName("Step markers only record while a recorder is bound to the thread")
+    public void testStepMarkers() {
+        try (LatencyRecorder.Marker ignored = LatencyRecorder.step("unbound")) {
+            Assertions.assertNull(LatencyRecorder.current());
+        }
+        LatencyRecorder recorder = new LatencyRecorder("test");
+        LatencyRecorder.bind(recorder);
+        try {
+            try (LatencyRecorder.Marker ignored = LatencyRecorder.step("wait.forErrors")) {
+                Assertions.assertSame(recorder, LatencyRecorder.current());
+            }
+        } finally {
+            LatencyRecorder.bind(null);
+        }
+        Assertions.assertEquals(List.of("wait.forErrors"), recorder.steps().stream().map(LatencyRecorder.Step::name).toList());
+        Assertions.assertNull(LatencyRecorder.current());
+    }
+
+    @Test
+    @DisplayName("Report summarises steps and page timings per test class")
+    @SuppressWarnings("unchecked")
+    public void testReport(@TempDir Path dir) throws Exception {
+        LatencyReport report = new LatencyReport("SomeFlowTest");
+        for (int i = 1; i <= 4; i++) {
+            LatencyRecorder recorder = new LatencyRecorder("test " + i);
+            recorder.record("WebDriver.get", 0, i * 1_000_000L);
+            recorder.record("JavascriptExecutor.executeScript", 0, 500_000L);
+            recorder.pageTiming(Map.of("load", 40.5 * i, "first-contentful-paint", 20L, "transferSize", 5120));
+            report.add(recorder, i == 4 ? "failed" : "passed");
+        }
+
+        Map<String, LatencyReport.Summary> summary = report.summary();
+        Assertions.assertEquals(List.of("JavascriptExecutor.executeScript", "WebDriver.get",
+                "page.first-contentful-paint", "page.load"), List.copyOf(summary.keySet()), "bytes are not a step");
+        Assertions.assertEquals(new LatencyReport.Summary(4, 2.0, 4.0, 4.0, 4.0, 10.0), summary.get("WebDriver.get"));
+        Assertions.assertEquals(162.0, summary.get("page.load").max());
+
+        Path json = report.writeTo(dir);
+        Map<String, Object> parsed = new Json().toType(Files.readString(json), Json.MAP_TYPE);
+        Assertions.assertEquals("SomeFlowTest", parsed.get("testClass"));
+        List<Map<String, Object>> tests = (List<Map<String, Object>>) parsed.get("tests");
+        Assertions.assertEquals(4, tests.size());
+        Assertions.assertEquals("failed", tests.get(3).get("status"));
+        Assertions.assertTrue(Files.readString(dir.resolve("SomeFlowTest.txt")).contains("WebDriver.get"));
+    }
+}
@@ -0,0 +1,317 @@
+package com.frugaltests;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * HTTP load generator for the registration submit path: posts the payload the form's submit handler builds
+ * (a {@link RegistrationData#toFieldMap()} with an {@code Idempotency-Key}) without a browser.
+ * - Closed loop ({@code --rate 0}, default): {@code --concurrency} requests are always in flight.
+ * - Open loop ({@code --rate N}): N requests per second on a fixed schedule, at most {@code --concurrency}
+ *   in flight. Latency is measured from the scheduled send time, so a stalled server shows up in the
+ *   percentiles instead of slowing the arrivals down (no coordinated omission).
+ * - Payloads: valid registrations (unique e-mail) and, with probability {@code --invalid}, the invalid
+ *   data of the negative flow, flow C or a disposable e-mail. Valid ones must get 201, invalid ones 422;
+ *   anything else is counted as unexpected.
+ * - Results: HdrHistogram p50/p90/p99/p99.9/max per payload kind, throughput and status codes, printed and
+ *   written to {@code --out} (report.txt, report.json and one .hgrm percentile distribution per kind).
+ *
+ * Without {@code --url} a StaticServer with a fresh registration log ({@code --batch}, {@code --flush-ms})
+ * is started in-process as the backend. Run with {@code mvn -Pload test -Dload.args="--rate 2000"}.
+ */
+public final class LoadGenerator {
+
+    /** Invalid payloads of the existing flows, drawn at random. */
+    private static final List<RegistrationData> INVALID = List.of(
+            RegistrationData.missingLastName(),
+            RegistrationData.invalidFlowC(),
+            RegistrationData.valid().withEmail("john@mailinator.com"));
+
+    /** Text fields the submit handler trims before sending. */
+    private static final Set<String> TRIMMED = Set.of("firstName", "lastName", "email", "phone", "age", "address");
+
+    private final Config config;
+    private final Json json = new Json();
+
+    /** Settings of one run; see {@link #parse(String...)} for the command line. */
+    public record Config(URI endpoint, int concurrency, double rate, Duration duration, Duration warmup,
+                         double invalidRatio, long seed, int batchSize, Duration flushInterval, Path out) {
+
+        public Config {
+            if (concurrency < 1) throw new IllegalArgumentException("concurrency must be at least 1");
+            if (rate < 0) throw new IllegalArgumentException("rate must not be negative");
+            if (invalidRatio < 0 || invalidRatio > 1) throw new IllegalArgumentException("invalid ratio must be in [0, 1]");
+        }
+
+        public boolean openLoop() {
+            return rate > 0;
+        }
+
+        Config withEndpoint(URI value) {
+            return new Config(value, concurrency, rate, duration, warmup, invalidRatio, seed, batchSize, flushInterval, out);
+        }
+    }
+
+    /**
+     * Outcome of a run: one histogram (microseconds) per payload kind plus "all". {@code sent} counts the requests
+     * of the measured part; in an open loop that is the schedule (rate x duration), whatever the server managed.
+     */
+    public record Report(Config config, long sent, long completed, long unexpected, long failed, double seconds,
+                         Map<String, Histogram> histograms, Map<Integer, Long> statuses) {
+
+        public double throughput() {
+            return seconds > 0 ? completed / seconds : 0;
+        }
+
+        public String format() {
+            StringBuilder out = new StringBuilder();
+            out.append(String.format(Locale.ROOT, "Registration load: %s, concurrency %d, %.1f s measured (%.1f s warm-up), %.0f%% invalid%n",
+                    config.openLoop() ? String.format(Locale.ROOT, "open loop at %.0f req/s", config.rate()) : "closed loop",
+                    config.concurrency(), seconds, config.warmup().toMillis() / 1000.0, config.invalidRatio() * 100));
+            out.append(String.format(Locale.ROOT, "Throughput %.1f req/s, %d sent, %d completed, %d unexpected status, %d failed; statuses %s%n",
+                    throughput(), sent, completed, unexpected, failed, statuses));
+            out.append(String.format("%-8s %8s %10s %10s %10s %10s %10s %10s%n",
+                    "kind", "count", "mean ms", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+            histograms.forEach((kind, h) -> out.append(String.format(Locale.ROOT, "%-8s %8d %10.3f %10.3f %10.3f %10.3f %10.3f %10.3f%n",
+                    kind, h.getTotalCount(), h.getMean() / 1000, ms(h, 50), ms(h, 90), ms(h, 99), ms(h, 99.9), h.getMaxValue() / 1000.0)));
+            return out.toString();
+        }
+
+        /** Writes report.txt, report.json and {@code <kind>.hgrm}; returns the JSON file. */
+        public Path writeTo(Path dir) throws IOException {
+            Files.createDirectories(dir);
+            Files.writeString(dir.resolve("report.txt"), format());
+            for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+                try (PrintStream hgrm = new PrintStream(Files.newOutputStream(dir.resolve(entry.getKey() + ".hgrm")), false,
+                        StandardCharsets.UTF_8)) {
+                    entry.getValue().outputPercentileDistribution(hgrm, 1000.0);
+                }
+            }
+            Map<String, Object> kinds = new LinkedHashMap<>();
+            histograms.forEach((kind, h) -> {
+                Map<String, Object> s = new LinkedHashMap<>();
+                s.put("count", h.getTotalCount());
+                s.put("meanMs", h.getMean() / 1000);
+                s.put("p50Ms", ms(h, 50));
+                s.put("p90Ms", ms(h, 90));
+                s.put("p99Ms", ms(h, 99));
+                s.put("p999Ms", ms(h, 99.9));
+                s.put("maxMs", h.getMaxValue() / 1000.0);
+                kinds.put(kind, s);
+            });
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("generatedAt", Instant.now().toString());
+            report.put("mode", config.openLoop() ? "open" : "closed");
+            report.put("rate", config.rate());
+            report.put("concurrency", config.concurrency());
+            report.put("seconds", seconds);
+            report.put("throughput", throughput());
+            report.put("sent", sent);
+            report.put("completed", completed);
+            report.put("unexpected", unexpected);
+            report.put("failed", failed);
+            Map<String, Long> statusJson = new TreeMap<>();
+            statuses.forEach((status, count) -> statusJson.put(String.valueOf(status), count));
+            report.put("statuses", statusJson);
+            report.put("latency", kinds);
+            Path file = dir.resolve("report.json");
+            Files.writeString(file, new Json().toJson(report));
+            return file;
+        }
+
+        private static double ms(Histogram h, double percentile) {
+            return h.getValueAtPercentile(percentile) / 1000.0;
+        }
+    }
+
+    public LoadGenerator(Config config) {
+        this.config = config;
+    }
+
+    /** Runs the configured load against {@code config.endpoint()} and returns the measured part. */
+    public Report run() throws InterruptedException {
+        Map<String, Histogram> histograms = new LinkedHashMap<>();
+        for (String kind : List.of("all", "valid", "invalid")) histograms.put(kind, new ConcurrentHistogram(3));
+        Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        LongAdder sent = new LongAdder();
+        LongAdder completed = new LongAdder();
+        LongAdder unexpected = new LongAdder();
+        LongAdder failed = new LongAdder();
+        AtomicLong lastCompletion = new AtomicLong();
+
+        AtomicInteger threads = new AtomicInteger();
+        // Java 17: a small fixed pool of platform threads runs the client's async I/O and callbacks
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(config.concurrency(), Runtime.getRuntime().availableProcessors() * 2),
+                r -> {
+                    Thread t = new Thread(r, "load-client-" + threads.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        HttpClient client = HttpClient.newBuilder().executor(pool).version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5)).build();
+        Semaphore inFlight = new Semaphore(config.concurrency());
+        SplittableRandom random = new SplittableRandom(config.seed());
+        String run = Long.toString(System.currentTimeMillis(), 36);
+
+        long start = System.nanoTime();
+        long measureFrom = start + config.warmup().toNanos();
+        long end = measureFrom + config.duration().toNanos();
+        long period = config.openLoop() ? (long) (1e9 / config.rate()) : 0;
+        try {
+            for (long i = 0; ; i++) {
+                long scheduled = config.openLoop() ? start + i * period : System.nanoTime();
+                if (scheduled >= end) break;
+                if (config.openLoop()) {
+                    for (long wait; (wait = scheduled - System.nanoTime()) > 0; ) LockSupport.parkNanos(wait);
+                }
+                inFlight.acquire();
+                // closed loop: latency from the actual send; open loop: from the scheduled send
+                long sentAt = config.openLoop() ? scheduled : System.nanoTime();
+                if (!config.openLoop() && sentAt >= end) {
+                    inFlight.release();
+                    break;
+                }
+                boolean invalid = random.nextDouble() < config.invalidRatio();
+                RegistrationData data = invalid ? INVALID.get(random.nextInt(INVALID.size()))
+                        : RegistrationData.valid().withEmail("load-" + run + "-" + i + "@example.com");
+                HttpRequest request = HttpRequest.newBuilder(config.endpoint())
+                        .timeout(Duration.ofSeconds(30))
+                        .header("Content-Type", "application/json")
+                        .header(RegistrationService.IDEMPOTENCY_KEY, "load-" + run + "-" + i)
+                        .POST(HttpRequest.BodyPublishers.ofString(json.toJson(payload(data))))
+                        .build();
+                boolean measured = sentAt >= measureFrom;
+                if (measured) sent.increment();
+                client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                    long now = System.nanoTime();
+                    // the permit goes back after recording: the report is built once all permits are back
+                    try {
+                        if (!measured) return;
+                        lastCompletion.accumulateAndGet(now, Math::max);
+                        if (error != null) {
+                            failed.increment();
+                            return;
+                        }
+                        long micros = Math.max(0, (now - sentAt) / 1000);
+                        histograms.get("all").recordValue(micros);
+                        histograms.get(invalid ? "invalid" : "valid").recordValue(micros);
+                        completed.increment();
+                        statuses.computeIfAbsent(response.statusCode(), k -> new LongAdder()).increment();
+                        if (response.statusCode() != (invalid ? 422 : 201)) unexpected.increment();
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+            if (!inFlight.tryAcquire(config.concurrency(), 30, TimeUnit.SECONDS)) {
+                System.err.println("Requests still in flight 30s after the end of the run");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        double seconds = Math.max(0, Math.max(end, lastCompletion.get()) - measureFrom) / 1e9;
+        histograms.entrySet().removeIf(e -> !e.getKey().equals("all") && e.getValue().getTotalCount() == 0);
+        Map<Integer, Long> statusCounts = new TreeMap<>();
+        statuses.forEach((status, count) -> statusCounts.put(status, count.sum()));
+        return new Report(config, sent.sum(), completed.sum(), unexpected.sum(), failed.sum(), seconds, histograms, statusCounts);
+    }
+
+    /** The body the submit handler sends: every field present, strings trimmed, empty instead of null. */
+    static Map<String, Object> payload(RegistrationData data) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        data.toFieldMap().forEach((field, value) -> payload.put(field,
+                value == null ? "" : TRIMMED.contains(field) ? RegistrationValidator.trim((String) value) : value));
+        return payload;
+    }
+
+    /**
+     * {@code --url <endpoint> --concurrency <n> --rate <req/s, 0 = closed loop> --duration <30s> --warmup <5s>
+     * --invalid <ratio> --seed <n> --batch <records> --flush-ms <ms> --out <dir>}
+     */
+    public static Config parse(String... args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 == args.length) {
+                throw new IllegalArgumentException("Expected --option value pairs, got: " + String.join(" ", args));
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+        Config config = new Config(
+                options.containsKey("url") ? URI.create(options.remove("url")) : null,
+                Integer.parseInt(options.getOrDefault("concurrency", "32")),
+                Double.parseDouble(options.getOrDefault("rate", "0")),
+                duration(options.getOrDefault("duration", "30s")),
+                duration(options.getOrDefault("warmup", "5s")),
+                Double.parseDouble(options.getOrDefault("invalid", "0.3")),
+                Long.parseLong(options.getOrDefault("seed", "1")),
+                Integer.parseInt(options.getOrDefault("batch", "64")),
+                Duration.ofMillis(Long.parseLong(options.getOrDefault("flush-ms", "2"))),
+                Path.of(options.getOrDefault("out", "target/load")));
+        options.keySet().removeAll(List.of("concurrency", "rate", "duration", "warmup", "invalid", "seed", "batch", "flush-ms", "out"));
+        if (!options.isEmpty()) throw new IllegalArgumentException("Unknown options: " + options.keySet());
+        return config;
+    }
+
+    /** "30s", "500ms", "2m" or plain seconds. */
+    static Duration duration(String value) {
+        String v = value.trim().toLowerCase(Locale.ROOT);
+        if (v.endsWith("ms")) return Duration.ofMillis(Long.parseLong(v.substring(0, v.length() - 2)));
+        if (v.endsWith("s")) return Duration.ofMillis(Math.round(Double.parseDouble(v.substring(0, v.length() - 1)) * 1000));
+        if (v.endsWith("m")) return Duration.ofSeconds(Long.parseLong(v.substring(0, v.length() - 1)) * 60);
+        return Duration.ofMillis(Math.round(Double.parseDouble(v) * 1000));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Config config = parse(args);
+        StaticServer server = null;
+        if (config.endpoint() == null) {
+            Path log = config.out().resolve("registrations.log");
+            Files.deleteIfExists(log);
+            server = StaticServer.start(0, RegistrationService.open(log, config.batchSize(), config.flushInterval()));
+            config = config.withEndpoint(server.url(RegistrationService.PATH.substring(1)));
+            System.out.printf("In-process backend at %s (log %s, batch %d, flush %d ms)%n", config.endpoint(), log,
+                    config.batchSize(), config.flushInterval().toMillis());
+        }
+        try {
+            Report report = new LoadGenerator(config).run();
+            System.out.print(report.format());
+            if (server != null) {
+                RegistrationService backend = server.registrations();
+                System.out.printf(Locale.ROOT, "Backend: %d registrations stored in %d group commits%n", backend.stored(), backend.flushes());
+            }
+            System.out.println("Report written to " + report.writeTo(config.out()).toAbsolutePath());
+        } finally {
+            if (server != null) server.stop();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.frugaltests;
+
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Load generator against an in-process backend: short closed- and open-loop runs, payload shape and options.
+ */
+public class LoadGeneratorTest {
+
+    private static StaticServer server;
+
+    @BeforeAll
+    public static void startBackend(@TempDir Path dir) throws Exception {
+        server = StaticServer.start(0, RegistrationService.open(dir.resolve("load.log"), 64, Duration.ofMillis(2)));
+    }
+
+    @AfterAll
+    public static void stopBackend() {
+        server.stop();
+    }
+
+    @Test
+    @DisplayName("Closed loop: valid and invalid payloads get 201 and 422, percentiles are recorded")
+    public void testClosedLoop(@TempDir Path out) throws Exception {
+        LoadGenerator.Config config = LoadGenerator.parse("--concurrency", "8", "--duration", "800ms", "--warmup", "200ms",
+                "--invalid", "0.3", "--out", out.toString()).withEndpoint(endpoint());
+        LoadGenerator.Report report = new LoadGenerator(config).run();
+
+        Assertions.assertTrue(report.completed() > 50, "completed only " + report.completed());
+        Assertions.assertEquals(0, report.unexpected(), "statuses " + report.statuses());
+        Assertions.assertEquals(0, report.failed());
+        Assertions.assertEquals(report.completed(), report.statuses().get(201) + report.statuses().get(422));
+        Histogram all = report.histograms().get("all");
+        Assertions.assertEquals(report.completed(), all.getTotalCount());
+        Assertions.assertTrue(all.getValueAtPercentile(50) <= all.getValueAtPercentile(99.9));
+        Assertions.assertTrue(report.histograms().containsKey("valid") && report.histograms().containsKey("invalid"));
+
+        Path json = report.writeTo(out);
+        Assertions.assertTrue(Files.readString(json).contains("\"p999Ms\""));
+        Assertions.assertTrue(Files.exists(out.resolve("all.hgrm")));
+        Assertions.assertTrue(Files.readString(out.resolve("report.txt")).contains("p99.9 ms"));
+    }
+
+    @Test
+    @DisplayName("Open loop sends at the configured rate")
+    public void testOpenLoop() throws Exception {
+        LoadGenerator.Config config = LoadGenerator.parse("--rate", "200", "--concurrency", "16", "--duration", "1s",
+                "--warmup", "0s", "--invalid", "0").withEndpoint(endpoint());
+        LoadGenerator.Report report = new LoadGenerator(config).run();
+
+        Assertions.assertEquals(200, report.sent(), "one request every 5 ms for 1 s");
+        // completions depend on the machine: a loaded agent may still have requests in flight or time out
+        Assertions.assertTrue(report.completed() >= 0.8 * report.sent(), "completed " + report.completed() + " of " + report.sent());
+        Assertions.assertEquals(Map.of(201, report.completed()), report.statuses());
+        Assertions.assertFalse(report.histograms().containsKey("invalid"));
+    }
+
+    @Test
+    @DisplayName("Payloads have the shape the submit handler posts; bad options are rejected")
+    public void testPayloadAndOptions() {
+        Map<String, Object> payload = LoadGenerator.payload(RegistrationData.missingLastName().withFirstName("  John "));
+        Assertions.assertEquals("John", payload.get("firstName"));
+        Assertions.assertEquals("", payload.get("lastName"));
+        Assertions.assertEquals("", payload.get("age"));
+        Assertions.assertEquals(true, payload.get("terms"));
+        Assertions.assertEquals(13, payload.size());
+
+        Assertions.assertEquals(Duration.ofMillis(1500), LoadGenerator.duration("1.5s"));
+        Assertions.assertEquals(Duration.ofMinutes(2), LoadGenerator.duration("2m"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> LoadGenerator.parse("--threads", "4"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> LoadGenerator.parse("--invalid", "2"));
+    }
+
+    private static URI endpoint() {
+        return server.url(RegistrationService.PATH.substring(1));
+    }
+}
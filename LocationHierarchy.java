@@ -0,0 +1,75 @@
+package com.frugaltests;
+
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Country -> state -> city hierarchy as the loaded page knows it, in the page's option order
+ * (every level sorted by {@link LocationIndexGenerator#ORDER}).
+ */
+public final class LocationHierarchy {
+
+    private static final String EXTRACT_SCRIPT = """
+            const done = arguments[arguments.length - 1];
+            allLocations().then(done, e => done(String(e)));
+            """;
+
+    private final Map<String, Map<String, List<String>>> countries;
+
+    LocationHierarchy(Map<String, Map<String, List<String>>> countries) {
+        this.countries = countries;
+    }
+
+    /** Reads the hierarchy from the page with a single executeAsyncScript call (loads every country file). */
+    @SuppressWarnings("unchecked")
+    public static LocationHierarchy extract(WebDriver driver) {
+        Object result = ((JavascriptExecutor) driver).executeAsyncScript(EXTRACT_SCRIPT);
+        if (!(result instanceof List)) throw new JavascriptException("Could not load the locations: " + result);
+        List<List<Object>> raw = (List<List<Object>>) result;
+        Map<String, Map<String, List<String>>> countries = new LinkedHashMap<>();
+        for (List<Object> country : raw) {
+            Map<String, List<String>> states = new LinkedHashMap<>();
+            for (List<Object> state : (List<List<Object>>) country.get(1)) {
+                states.put((String) state.get(0), List.copyOf((List<String>) state.get(1)));
+            }
+            countries.put((String) country.get(0), Collections.unmodifiableMap(states));
+        }
+        return new LocationHierarchy(Collections.unmodifiableMap(countries));
+    }
+
+    public Set<String> countries() {
+        return countries.keySet();
+    }
+
+    public Set<String> states(String country) {
+        return countries.get(country).keySet();
+    }
+
+    public List<String> cities(String country, String state) {
+        return countries.get(country).get(state);
+    }
+
+    /** Every (country, state, city) combination, in option order. */
+    public List<List<String>> combinations() {
+        List<List<String>> all = new ArrayList<>();
+        countries.forEach((country, states) -> states.forEach((state, cities) ->
+                cities.forEach(city -> all.add(List.of(country, state, city)))));
+        return all;
+    }
+
+    public int stateCount() {
+        return countries.values().stream().mapToInt(Map::size).sum();
+    }
+
+    public int cityCount() {
+        return countries.values().stream().flatMap(s -> s.values().stream()).mapToInt(List::size).sum();
+    }
+}
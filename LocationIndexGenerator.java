@@ -0,0 +1,175 @@
+package com.frugaltests;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Builds the location index the page loads on demand:
+ * - {@code index.json}: {@code {"version":1,"countries":[[name, file, states, cities], ...]}}
+ * - one file per country: {@code {"states":[...],"cities":[[...], ...]}}, cities[i] belonging to states[i].
+ * Every list is pre-sorted (lower-cased name, then name, by UTF-16 code unit), so the page renders options
+ * without sorting and filters them with a binary search on the prefix. Output is compact and deterministic.
+ *
+ * Usage: {@code LocationIndexGenerator <source.tsv> <outDir>} (lines: country TAB state TAB city, '#' comments)
+ * or {@code LocationIndexGenerator --synthetic <countries> <statesPerCountry> <citiesPerState> <outDir>}.
+ */
+public final class LocationIndexGenerator {
+
+    public static final String INDEX_FILE = "index.json";
+
+    /** Option order used by the index and expected by the page's prefix search. */
+    public static final Comparator<String> ORDER =
+            Comparator.comparing((String s) -> s.toLowerCase(Locale.ROOT)).thenComparing(Comparator.naturalOrder());
+
+    private static final String[] SYLLABLES = {
+            "ka", "lo", "mi", "ra", "ten", "bur", "sa", "vel", "do", "an", "mar", "ix", "po", "lin", "gar", "ue"
+    };
+
+    private LocationIndexGenerator() {
+    }
+
+    /** Reads country/state/city lines; the result keeps the order of first appearance. */
+    public static Map<String, Map<String, List<String>>> readTsv(Path source) throws IOException {
+        Map<String, Map<String, List<String>>> data = new LinkedHashMap<>();
+        List<String> lines = Files.readAllLines(source, StandardCharsets.UTF_8);
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (line.isBlank() || line.startsWith("#")) continue;
+            String[] cols = line.split("\t", -1);
+            if (cols.length != 3 || cols[0].isBlank() || cols[1].isBlank() || cols[2].isBlank()) {
+                throw new IllegalArgumentException(source + ":" + (i + 1) + ": expected country<TAB>state<TAB>city");
+            }
+            data.computeIfAbsent(cols[0].trim(), k -> new LinkedHashMap<>())
+                    .computeIfAbsent(cols[1].trim(), k -> new ArrayList<>())
+                    .add(cols[2].trim());
+        }
+        return data;
+    }
+
+    /** Deterministic pseudo-random dataset for scale tests; names are unique within their list. */
+    public static Map<String, Map<String, List<String>>> synthetic(int countries, int statesPerCountry, int citiesPerState,
+                                                                    long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Map<String, Map<String, List<String>>> data = new LinkedHashMap<>();
+        for (int c = 0; c < countries; c++) {
+            Map<String, List<String>> states = new LinkedHashMap<>();
+            for (int s = 0; s < statesPerCountry; s++) {
+                List<String> cities = new ArrayList<>(citiesPerState);
+                for (int ct = 0; ct < citiesPerState; ct++) cities.add(name(random) + " " + (ct + 1));
+                states.put(name(random) + " " + (s + 1), cities);
+            }
+            data.put(name(random) + "land " + (c + 1), states);
+        }
+        return data;
+    }
+
+    /** Writes index.json and one file per country into the directory; returns the written files. */
+    public static List<Path> write(Map<String, Map<String, List<String>>> data, Path outDir) throws IOException {
+        Files.createDirectories(outDir);
+        List<String> countries = sorted(data.keySet());
+        Set<String> fileNames = new HashSet<>();
+        List<Path> written = new ArrayList<>();
+        StringBuilder index = new StringBuilder("{\"version\":1,\"countries\":[");
+        for (int c = 0; c < countries.size(); c++) {
+            String country = countries.get(c);
+            Map<String, List<String>> states = data.get(country);
+            List<String> stateNames = sorted(states.keySet());
+            StringBuilder file = new StringBuilder("{\"states\":");
+            appendArray(file, stateNames);
+            file.append(",\"cities\":[");
+            int cityCount = 0;
+            for (int s = 0; s < stateNames.size(); s++) {
+                List<String> cities = sorted(new HashSet<>(states.get(stateNames.get(s))));
+                cityCount += cities.size();
+                if (s > 0) file.append(',');
+                appendArray(file, cities);
+            }
+            file.append("]}");
+
+            String fileName = uniqueFileName(country, fileNames);
+            written.add(Files.writeString(outDir.resolve(fileName), file, StandardCharsets.UTF_8));
+            if (c > 0) index.append(',');
+            index.append('[').append(quote(country)).append(',').append(quote(fileName)).append(',')
+                    .append(stateNames.size()).append(',').append(cityCount).append(']');
+        }
+        index.append("]}");
+        written.add(0, Files.writeString(outDir.resolve(INDEX_FILE), index, StandardCharsets.UTF_8));
+        return written;
+    }
+
+    static List<String> sorted(Iterable<String> names) {
+        List<String> list = new ArrayList<>();
+        names.forEach(list::add);
+        list.sort(ORDER);
+        return list;
+    }
+
+    /** "São Paulo" -> "sao-paulo.json"; a number is appended if two countries map to the same name. */
+    static String uniqueFileName(String country, Set<String> taken) {
+        String ascii = Normalizer.normalize(country, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        String slug = ascii.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", "-").replaceAll("^-|-$", "");
+        if (slug.isEmpty()) slug = "country";
+        String name = slug + ".json";
+        for (int n = 2; !taken.add(name); n++) name = slug + "-" + n + ".json";
+        return name;
+    }
+
+    private static void appendArray(StringBuilder out, List<String> values) {
+        out.append('[');
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) out.append(',');
+            out.append(quote(values.get(i)));
+        }
+        out.append(']');
+    }
+
+    static String quote(String s) {
+        StringBuilder out = new StringBuilder(s.length() + 2).append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') out.append('\\').append(c);
+            else if (c < 0x20 || c == 0x2028 || c == 0x2029) out.append(String.format("\\u%04x", (int) c));
+            else out.append(c);
+        }
+        return out.append('"').toString();
+    }
+
+    private static String name(SplittableRandom random) {
+        StringBuilder name = new StringBuilder();
+        int parts = random.nextInt(2, 4);
+        for (int i = 0; i < parts; i++) name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+        return name.toString();
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, Map<String, List<String>>> data;
+        Path out;
+        if (args.length == 5 && args[0].equals("--synthetic")) {
+            data = synthetic(Integer.parseInt(args[1]), Integer.parseInt(args[2]), Integer.parseInt(args[3]), 42);
+            out = Path.of(args[4]);
+        } else if (args.length == 2) {
+            data = readTsv(Path.of(args[0]));
+            out = Path.of(args[1]);
+        } else {
+            System.err.println("Usage: LocationIndexGenerator <source.tsv> <outDir>");
+            System.err.println("       LocationIndexGenerator --synthetic <countries> <statesPerCountry> <citiesPerState> <outDir>");
+            System.exit(2);
+            return;
+        }
+        List<Path> files = write(data, out);
+        System.out.println("Wrote " + files.size() + " files to " + out.toAbsolutePath());
+    }
+}
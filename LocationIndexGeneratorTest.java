@@ -0,0 +1,72 @@
+package com.frugaltests;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import org.openqa.selenium.json.Json;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * LocationIndexGenerator: file format, ordering, and that the committed locations/ matches locations.tsv.
+ */
+public class LocationIndexGeneratorTest {
+
+    @Test
+    @DisplayName("locations/ is up to date with locations.tsv")
+    public void testCommittedIndexIsCurrent(@TempDir Path dir) throws Exception {
+        LocationIndexGenerator.write(LocationIndexGenerator.readTsv(Path.of("locations.tsv")), dir);
+        List<String> expected, actual;
+        try (Stream<Path> generated = Files.list(dir); Stream<Path> committed = Files.list(Path.of("locations"))) {
+            expected = generated.map(p -> p.getFileName().toString()).sorted().toList();
+            actual = committed.map(p -> p.getFileName().toString()).sorted().toList();
+        }
+        String hint = "run: java -cp target/test-classes com.frugaltests.LocationIndexGenerator locations.tsv locations";
+        Assertions.assertEquals(expected, actual, hint);
+        for (String name : expected) {
+            Assertions.assertEquals(Files.readString(dir.resolve(name)), Files.readString(Path.of("locations", name)),
+                    name + " is stale; " + hint);
+        }
+    }
+
+    @Test
+    @DisplayName("Index and country files are sorted, compact and complete")
+    @SuppressWarnings("unchecked")
+    public void testFormat(@TempDir Path dir) throws Exception {
+        Map<String, Map<String, List<String>>> data = Map.of(
+                "Zed", Map.of("b", List.of("x")),
+                "Österreich", Map.of("Wien", List.of("Wien")),
+                "alpha \"quoted\"", Map.of("Beta", List.of("c2", "C1", "c2", "a"), "alpha", List.of("Z")));
+        LocationIndexGenerator.write(data, dir);
+
+        Json json = new Json();
+        Map<String, Object> index = json.toType(Files.readString(dir.resolve("index.json")), Json.MAP_TYPE);
+        List<List<Object>> countries = (List<List<Object>>) index.get("countries");
+        Assertions.assertEquals(List.of("alpha \"quoted\"", "Zed", "Österreich"), countries.stream().map(c -> c.get(0)).toList());
+        Assertions.assertEquals(List.of("alpha-quoted.json", 2L, 4L), countries.get(0).subList(1, 4));
+        Assertions.assertEquals("osterreich.json", countries.get(2).get(1));
+
+        String raw = Files.readString(dir.resolve("alpha-quoted.json"));
+        Assertions.assertFalse(raw.contains("\n") || raw.contains(" ,"), "compact");
+        Map<String, Object> country = json.toType(raw, Json.MAP_TYPE);
+        Assertions.assertEquals(List.of("alpha", "Beta"), country.get("states"));
+        Assertions.assertEquals(List.of(List.of("Z"), List.of("a", "C1", "c2")), country.get("cities"));
+    }
+
+    @Test
+    @DisplayName("Synthetic datasets are deterministic with unique names")
+    public void testSynthetic() {
+        Map<String, Map<String, List<String>>> data = LocationIndexGenerator.synthetic(2, 3, 1000, 1);
+        Assertions.assertEquals(data, LocationIndexGenerator.synthetic(2, 3, 1000, 1));
+        Assertions.assertEquals(2, data.size());
+        data.values().forEach(states -> {
+            Assertions.assertEquals(3, states.size());
+            states.values().forEach(cities -> Assertions.assertEquals(1000, new HashSet<>(cities).size()));
+        });
+        Assertions.assertEquals("fr-2.json", LocationIndexGenerator.uniqueFileName("FR", new HashSet<>(List.of("fr.json"))));
+    }
+}
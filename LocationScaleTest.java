@@ -0,0 +1,102 @@
+package com.frugaltests;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Option-population latency with a generated location index of 10k+ cities per state, served from a
+ * {@link StaticServer#mount(String, Path) mounted} directory. Measured in the page up to the next frame:
+ * country change (fetch + states), state change (cities, rendered in fragment chunks), typeahead filtering,
+ * and, for comparison, the same cities appended one option at a time.
+ *
+ * -Dfrugal.locations.cities (default 12000) sets the cities per state,
+ * -Dfrugal.locations.budget.ms (default 1000) the budget for rendering them.
+ */
+@RegistrationFlow
+public class LocationScaleTest {
+
+    private static final String MEASURE_SCRIPT = """
+            const [countryName, stateName, prefix] = arguments;
+            const done = arguments[arguments.length - 1];
+            const byId = id => document.getElementById(id);
+            const change = el => el.dispatchEvent(new Event('change', { bubbles: true }));
+            const settled = () => locationsIdle().then(() => new Promise(r => requestAnimationFrame(() => setTimeout(r, 0))));
+            (async () => {
+              const country = byId('country'), state = byId('state'), city = byId('city'), filter = byId('cityFilter');
+              let t = performance.now();
+              country.value = countryName; change(country);
+              await settled();
+              const statesMs = performance.now() - t;
+
+              t = performance.now();
+              state.value = stateName; change(state);
+              await settled();
+              const citiesMs = performance.now() - t;
+              const cityOptions = city.options.length - 1;
+
+              t = performance.now();
+              filter.value = prefix; filter.dispatchEvent(new Event('input', { bubbles: true }));
+              await settled();
+              const filterMs = performance.now() - t;
+              const filteredOptions = city.options.length - 1;
+
+              // baseline: the previous rendering, one appendChild per option into a live select
+              const entry = (await allLocations()).find(c => c[0] === countryName)[1].find(s => s[0] === stateName)[1];
+              const naive = document.createElement('select');
+              document.body.appendChild(naive);
+              t = performance.now();
+              entry.forEach(n => { const o = document.createElement('option'); o.value = n; o.textContent = n; naive.appendChild(o); });
+              await settled();
+              const appendChildMs = performance.now() - t;
+              naive.remove();
+
+              return { statesMs, citiesMs, filterMs, appendChildMs, cityOptions, filteredOptions,
+                       stateOptions: state.options.length - 1, filterVisible: !filter.hidden };
+            })().then(done, e => done({ error: String(e) }));
+            """;
+
+    @Test
+    @DisplayName("State and city options populate within budget at 10k+ cities")
+    @SuppressWarnings("unchecked")
+    public void testLargeLocationIndex(WebDriver driver, @PageUrl String page, @TempDir Path dir) throws IOException {
+        int citiesPerState = Integer.getInteger("frugal.locations.cities", 12_000);
+        double budgetMs = Double.parseDouble(System.getProperty("frugal.locations.budget.ms", "1000"));
+        Map<String, Map<String, List<String>>> data = LocationIndexGenerator.synthetic(2, 3, citiesPerState, 7);
+        LocationIndexGenerator.write(data, dir);
+        StaticServer.get().mount("large-locations/", dir);
+
+        String country = LocationIndexGenerator.sorted(data.keySet()).get(0);
+        String state = LocationIndexGenerator.sorted(data.get(country).keySet()).get(1);
+        String prefix = "ka";
+        long expectedFiltered = data.get(country).get(state).stream()
+                .filter(c -> c.toLowerCase(Locale.ROOT).startsWith(prefix)).count();
+
+        driver.get(page + "?locations=large-locations/");
+        FormWaits.forLocations(driver, Duration.ofSeconds(20));
+        Map<String, Object> r = (Map<String, Object>) ((JavascriptExecutor) driver)
+                .executeAsyncScript(MEASURE_SCRIPT, country, state, prefix);
+        Assertions.assertNull(r.get("error"), "measurement failed");
+
+        double citiesMs = ((Number) r.get("citiesMs")).doubleValue();
+        System.out.printf("Location index at %d cities per state: states %.1f ms (fetch + render), cities %.1f ms,"
+                        + " typeahead '%s' %.1f ms (%s options), one-by-one appendChild %.1f ms%n",
+                citiesPerState, ((Number) r.get("statesMs")).doubleValue(), citiesMs, prefix,
+                ((Number) r.get("filterMs")).doubleValue(), r.get("filteredOptions"),
+                ((Number) r.get("appendChildMs")).doubleValue());
+
+        Assertions.assertEquals(3L, r.get("stateOptions"));
+        Assertions.assertEquals((long) citiesPerState, r.get("cityOptions"));
+        Assertions.assertEquals(true, r.get("filterVisible"), "typeahead shown for a long list");
+        Assertions.assertEquals(expectedFiltered, r.get("filteredOptions"), "cities starting with '" + prefix + "'");
+        Assertions.assertTrue(citiesMs <= budgetMs, citiesPerState + " cities took " + citiesMs + " ms, budget " + budgetMs + " ms");
+    }
+}
@@ -0,0 +1,15 @@
+package com.frugaltests;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a String (or URI) test parameter that receives the URL of the registration form
+ * served by {@link StaticServer}.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PageUrl {
+}
@@ -0,0 +1,50 @@
+package com.frugaltests;
+
+import org.junit.jupiter.api.Assertions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Upper bound in milliseconds for one measured interaction, e.g. "state.populate" within 50 ms.
+ * The default limit of a budget can be overridden with -Dfrugal.budget.&lt;name&gt;.ms, e.g. to hold a
+ * slower {@link DeviceProfile} to a looser budget.
+ */
+public record PerformanceBudget(String name, double limitMs) {
+
+    public static final String BUDGET_PREFIX = "frugal.budget.";
+
+    public PerformanceBudget {
+        if (!(limitMs > 0)) throw new IllegalArgumentException("Budget " + name + " must be positive: " + limitMs);
+    }
+
+    /** The budget with its limit taken from -Dfrugal.budget.&lt;name&gt;.ms when set. */
+    public static PerformanceBudget of(String name, double defaultMs) {
+        String override = System.getProperty(BUDGET_PREFIX + name + ".ms");
+        return new PerformanceBudget(name, override == null ? defaultMs : Double.parseDouble(override));
+    }
+
+    /** A message describing by how much the measurement exceeds this budget, or empty if it is met. */
+    public Optional<String> violation(double measuredMs, DeviceProfile profile) {
+        if (measuredMs <= limitMs) return Optional.empty();
+        return Optional.of(String.format(Locale.ROOT, "%s took %.1f ms on %s, budget %.1f ms (%.1fx)",
+                name, measuredMs, profile, limitMs, measuredMs / limitMs));
+    }
+
+    /** Prints every measurement against its budget and fails listing all budgets that were blown. */
+    public static void assertMet(DeviceProfile profile, Map<PerformanceBudget, Double> measured) {
+        List<String> violations = new ArrayList<>();
+        StringBuilder summary = new StringBuilder("Performance budgets on " + profile + ":\n");
+        measured.forEach((budget, ms) -> {
+            summary.append(String.format(Locale.ROOT, "  %-28s %9.1f ms  budget %7.1f ms%n", budget.name(), ms, budget.limitMs()));
+            budget.violation(ms, profile).ifPresent(violations::add);
+        });
+        System.out.print(summary);
+        if (!violations.isEmpty()) {
+            Assertions.fail(violations.size() + " performance budget(s) exceeded:\n  " + String.join("\n  ", violations));
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.frugaltests;
+
+import org.junit.jupiter.api.*;
+import org.opentest4j.AssertionFailedError;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Budget checks and device profile names; the measurements themselves need Chrome (see DevicePerformanceTest).
+ */
+public class PerformanceBudgetTest {
+
+    @Test
+    @DisplayName("Blown budgets are all reported with the profile they were measured on")
+    public void testAssertMet() {
+        Map<PerformanceBudget, Double> measured = new LinkedHashMap<>();
+        measured.put(new PerformanceBudget("state.populate", 50), 72.5);
+        measured.put(new PerformanceBudget("keystroke.error", 100), 40.0);
+        measured.put(new PerformanceBudget("longtask.max", 100), 250.0);
+
+        AssertionFailedError error = Assertions.assertThrows(AssertionFailedError.class,
+                () -> PerformanceBudget.assertMet(DeviceProfile.MID_TIER_MOBILE, measured));
+        Assertions.assertTrue(error.getMessage().startsWith("2 performance budget(s) exceeded"), error.getMessage());
+        Assertions.assertTrue(error.getMessage().contains("state.populate took 72.5 ms on mid-tier-mobile (4x CPU"), error.getMessage());
+        Assertions.assertFalse(error.getMessage().contains("keystroke.error"));
+
+        measured.put(new PerformanceBudget("state.populate", 50), 50.0);
+        measured.remove(new PerformanceBudget("longtask.max", 100));
+        Assertions.assertDoesNotThrow(() -> PerformanceBudget.assertMet(DeviceProfile.MID_TIER_MOBILE, measured));
+    }
+
+    @Test
+    @DisplayName("Budgets can be overridden per run and must be positive")
+    public void testOverride() {
+        Assertions.assertEquals(50, PerformanceBudget.of("sample.step", 50).limitMs());
+        System.setProperty(PerformanceBudget.BUDGET_PREFIX + "sample.step.ms", "120");
+        try {
+            Assertions.assertEquals(120, PerformanceBudget.of("sample.step", 50).limitMs());
+        } finally {
+            System.clearProperty(PerformanceBudget.BUDGET_PREFIX + "sample.step.ms");
+        }
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PerformanceBudget("sample.step", 0));
+    }
+
+    @Test
+    @DisplayName("Device profiles are selected by name")
+    public void testProfiles() {
+        Assertions.assertEquals(DeviceProfile.LOW_END_MOBILE, DeviceProfile.from("low-end-mobile"));
+        Assertions.assertEquals(DeviceProfile.MID_TIER_MOBILE, DeviceProfile.from(" MID_TIER_MOBILE "));
+        Assertions.assertEquals(4, DeviceProfile.from("mid-tier-mobile").cpuSlowdown());
+        Assertions.assertFalse(DeviceProfile.DESKTOP.throttlesNetwork());
+        Assertions.assertEquals("desktop (1x CPU)", DeviceProfile.DESKTOP.toString());
+        IllegalArgumentException unknown = Assertions.assertThrows(IllegalArgumentException.class, () -> DeviceProfile.from("phone"));
+        Assertions.assertTrue(unknown.getMessage().contains("desktop, mid-tier-mobile, low-end-mobile"));
+    }
+}
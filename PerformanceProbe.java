@@ -0,0 +1,142 @@
+package com.frugaltests;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Main-thread cost of what a test does in the page, read through Chrome DevTools:
+ * - script and task time from Performance.getMetrics (ScriptDuration / TaskDuration, cumulative per session),
+ * - long tasks (over 50 ms) from a PerformanceObserver that is installed before any script of a new document runs.
+ * The session is throttled to a {@link DeviceProfile} while the probe is attached; {@link #close()} restores it.
+ * {@link DriverPoolExtension} attaches a probe to every leased Chrome session.
+ */
+public final class PerformanceProbe implements AutoCloseable {
+
+    private static final String LONG_TASK_OBSERVER = """
+            window.__longTasks = [];
+            try {
+              new PerformanceObserver(list => list.getEntries().forEach(e =>
+                  window.__longTasks.push({ start: e.startTime, duration: e.duration })))
+                .observe({ type: 'longtask', buffered: true });
+            } catch (e) {}
+            """;
+
+    private static final String TAKE_LONG_TASKS = """
+            const tasks = window.__longTasks || [];
+            window.__longTasks = [];
+            return tasks;
+            """;
+
+    /** Main-thread work between two {@link #usage()} calls, in milliseconds. */
+    public record Usage(double scriptMs, double taskMs, int longTasks, double longTaskMs, double maxLongTaskMs) {
+
+        Usage plus(Usage other) {
+            return new Usage(scriptMs + other.scriptMs, taskMs + other.taskMs, longTasks + other.longTasks,
+                    longTaskMs + other.longTaskMs, Math.max(maxLongTaskMs, other.maxLongTaskMs));
+        }
+
+        /** Entries for {@link LatencyRecorder#pageTiming()}, reported as page.&lt;name&gt; steps. */
+        Map<String, Object> toPageTiming() {
+            Map<String, Object> timing = new LinkedHashMap<>();
+            timing.put("scriptDuration", scriptMs);
+            timing.put("taskDuration", taskMs);
+            timing.put("longTaskTotal", longTaskMs);
+            timing.put("longTaskMax", maxLongTaskMs);
+            return timing;
+        }
+    }
+
+    private final HasCdp cdp;
+    private final String observerId;
+    private DeviceProfile profile;
+    private Map<String, Double> lastMetrics;
+    private Usage total = new Usage(0, 0, 0, 0, 0);
+
+    private PerformanceProbe(HasCdp cdp, DeviceProfile profile) {
+        this.cdp = cdp;
+        cdp.executeCdpCommand("Performance.enable", Map.of("timeDomain", "timeTicks"));
+        this.observerId = (String) cdp.executeCdpCommand("Page.addScriptToEvaluateOnNewDocument",
+                Map.of("source", LONG_TASK_OBSERVER)).get("identifier");
+        this.lastMetrics = metrics();
+        profile(profile);
+    }
+
+    /** Starts probing a Chrome session (it must also be a JavascriptExecutor) and throttles it to the profile. */
+    public static PerformanceProbe attach(HasCdp session, DeviceProfile profile) {
+        if (!(session instanceof JavascriptExecutor)) {
+            throw new IllegalArgumentException("Not a browser session: " + session.getClass().getName());
+        }
+        return new PerformanceProbe(session, profile);
+    }
+
+    public DeviceProfile profile() {
+        return profile;
+    }
+
+    /** Switches the throttling of the session, e.g. to run one step on a slower device. */
+    public void profile(DeviceProfile profile) {
+        profile.apply(cdp);
+        this.profile = profile;
+    }
+
+    /** Work since the previous call (or since the probe was attached); long tasks only of the current document. */
+    @SuppressWarnings("unchecked")
+    public synchronized Usage usage() {
+        Map<String, Double> now = metrics();
+        double scriptMs = delta(now, "ScriptDuration");
+        double taskMs = delta(now, "TaskDuration");
+        lastMetrics = now;
+
+        int count = 0;
+        double longTaskMs = 0;
+        double maxMs = 0;
+        for (Object task : (List<Object>) ((JavascriptExecutor) cdp).executeScript(TAKE_LONG_TASKS)) {
+            double duration = ((Number) ((Map<String, Object>) task).get("duration")).doubleValue();
+            count++;
+            longTaskMs += duration;
+            maxMs = Math.max(maxMs, duration);
+        }
+        Usage usage = new Usage(scriptMs, taskMs, count, longTaskMs, maxMs);
+        total = total.plus(usage);
+        return usage;
+    }
+
+    /** Everything measured since the probe was attached, including a final {@link #usage()}. */
+    public synchronized Usage total() {
+        usage();
+        return total;
+    }
+
+    /** Removes the long task observer and the throttling, so the pooled session is clean for the next test. */
+    @Override
+    public void close() {
+        try {
+            cdp.executeCdpCommand("Page.removeScriptToEvaluateOnNewDocument", Map.of("identifier", observerId));
+            cdp.executeCdpCommand("Performance.disable", Map.of());
+        } finally {
+            DeviceProfile.reset(cdp);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Double> metrics() {
+        Map<String, Double> metrics = new HashMap<>();
+        for (Object metric : (List<Object>) cdp.executeCdpCommand("Performance.getMetrics", Map.of()).get("metrics")) {
+            Map<String, Object> m = (Map<String, Object>) metric;
+            metrics.put((String) m.get("name"), ((Number) m.get("value")).doubleValue());
+        }
+        return metrics;
+    }
+
+    /** Metric durations are in seconds; the counters restart with a new renderer, so never go negative. */
+    private double delta(Map<String, Double> now, String name) {
+        double before = lastMetrics.getOrDefault(name, 0.0);
+        double after = now.getOrDefault(name, 0.0);
+        return Math.max(0, after >= before ? after - before : after) * 1000;
+    }
+}
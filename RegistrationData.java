@@ -0,0 +1,114 @@
+package com.frugaltests;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Values for one registration attempt. Field names match the element ids in index.html.
+ * A null or empty value means "leave the field untouched".
+ */
+public record RegistrationData(
+        String firstName,
+        String lastName,
+        String email,
+        String phone,
+        String age,
+        String gender,
+        String address,
+        String country,
+        String state,
+        String city,
+        String password,
+        String confirmPassword,
+        boolean acceptTerms) {
+
+    /** The valid registration used by the positive flow: John Doe in Sydney, New South Wales, Australia. */
+    public static RegistrationData valid() {
+        return new RegistrationData("John", "Doe", "john.doe@example.com", "+91 9876543210", null, "Male", null,
+                "Australia", "New South Wales", "Sydney", "Abcd@1234", "Abcd@1234", true);
+    }
+
+    /** The negative flow: every required field except lastName. */
+    public static RegistrationData missingLastName() {
+        return valid().withLastName(null).withEmail("john.example@test.com");
+    }
+
+    /** Flow C: invalid email and phone, mismatched passwords, no gender, terms not accepted. */
+    public static RegistrationData invalidFlowC() {
+        return valid().withFirstName("Alice").withLastName("Wonder").withGender(null).withEmail("bad-email")
+                .withPhone("9876543210").withPasswords("Abcd@1234", "Xyz@1234").withTerms(false);
+    }
+
+    public RegistrationData withFirstName(String value) {
+        return new RegistrationData(value, lastName, email, phone, age, gender, address, country, state, city,
+                password, confirmPassword, acceptTerms);
+    }
+
+    public RegistrationData withLastName(String value) {
+        return new RegistrationData(firstName, value, email, phone, age, gender, address, country, state, city,
+                password, confirmPassword, acceptTerms);
+    }
+
+    public RegistrationData withEmail(String value) {
+        return new RegistrationData(firstName, lastName, value, phone, age, gender, address, country, state, city,
+                password, confirmPassword, acceptTerms);
+    }
+
+    public RegistrationData withPhone(String value) {
+        return new RegistrationData(firstName, lastName, email, value, age, gender, address, country, state, city,
+                password, confirmPassword, acceptTerms);
+    }
+
+    public RegistrationData withGender(String value) {
+        return new RegistrationData(firstName, lastName, email, phone, age, value, address, country, state, city,
+                password, confirmPassword, acceptTerms);
+    }
+
+    public RegistrationData withLocation(String country, String state, String city) {
+        return new RegistrationData(firstName, lastName, email, phone, age, gender, address, country, state, city,
+                password, confirmPassword, acceptTerms);
+    }
+
+    public RegistrationData withPasswords(String password, String confirmPassword) {
+        return new RegistrationData(firstName, lastName, email, phone, age, gender, address, country, state, city,
+                password, confirmPassword, acceptTerms);
+    }
+
+    public RegistrationData withTerms(boolean accepted) {
+        return new RegistrationData(firstName, lastName, email, phone, age, gender, address, country, state, city,
+                password, confirmPassword, accepted);
+    }
+
+    /** Element id -> value, the argument shape of {@link RegistrationForm}'s fill script. */
+    public Map<String, Object> toFieldMap() {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("firstName", firstName);
+        fields.put("lastName", lastName);
+        fields.put("email", email);
+        fields.put("phone", phone);
+        fields.put("age", age);
+        fields.put("gender", gender);
+        fields.put("address", address);
+        fields.put("country", country);
+        fields.put("state", state);
+        fields.put("city", city);
+        fields.put("password", password);
+        fields.put("confirmPassword", confirmPassword);
+        fields.put("terms", acceptTerms);
+        return fields;
+    }
+
+    /** Inverse of {@link #toFieldMap()}: missing values become null, "terms" is true only for Boolean.TRUE or "true". */
+    public static RegistrationData fromFieldMap(Map<String, ?> fields) {
+        Object terms = fields.get("terms");
+        return new RegistrationData(text(fields, "firstName"), text(fields, "lastName"), text(fields, "email"),
+                text(fields, "phone"), text(fields, "age"), text(fields, "gender"), text(fields, "address"),
+                text(fields, "country"), text(fields, "state"), text(fields, "city"), text(fields, "password"),
+                text(fields, "confirmPassword"), Boolean.TRUE.equals(terms) || "true".equals(terms));
+    }
+
+    private static String text(Map<String, ?> fields, String key) {
+        Object value = fields.get(key);
+        return value == null ? null : value.toString();
+    }
+}
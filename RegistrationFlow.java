@@ -0,0 +1,22 @@
+package com.frugaltests;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Browser test against the served registration form. Test methods can declare:
+ * - {@code @PageUrl String page} — URL of index.html on the embedded {@link StaticServer}
+ * - {@code WebDriver driver} — session leased from the {@link DriverPool}
+ * - {@code TestArtifacts artifacts} — artifact folder of this invocation
+ * Every test is timed step by step; see {@link TimingExtension} for the report in target/timings.
+ * Tests that passed with unchanged assets, classes and browser are skipped; see {@link ResultCacheExtension}.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith({ResultCacheExtension.class, TimingExtension.class, StaticServerExtension.class, DriverPoolExtension.class, ArtifactsExtension.class})
+public @interface RegistrationFlow {
+}
@@ -0,0 +1,129 @@
+package com.frugaltests;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.Select;
+
+import java.time.Duration;
+
+/**
+ * Page object for the registration form.
+ * - {@link Mode#FAST}: every value and its input/change events are applied in a single executeAsyncScript call,
+ *   which waits in the page for the state/city options of the chosen country to load.
+ * - {@link Mode#TYPING}: realistic keyboard/mouse interaction through sendKeys, click and Select.
+ * Both modes fire the same validation handlers in script.js and leave the form in the same state.
+ */
+public class RegistrationForm {
+
+    public enum Mode { FAST, TYPING }
+
+    private static final String FILL_SCRIPT = """
+            const d = arguments[0];
+            const done = arguments[arguments.length - 1];
+            const fire = (el, type) => el.dispatchEvent(new Event(type, { bubbles: true }));
+            const has = id => d[id] !== null && d[id] !== undefined && d[id] !== '';
+            const text = id => {
+              if (!has(id)) return;
+              const el = document.getElementById(id);
+              el.value = d[id]; fire(el, 'input'); fire(el, 'change');
+            };
+            const select = id => {
+              if (!has(id)) return;
+              const el = document.getElementById(id);
+              if (!Array.from(el.options).some(o => o.value === d[id])) {
+                throw new Error("Option '" + d[id] + "' not found in #" + id);
+              }
+              el.value = d[id]; fire(el, 'change');
+            };
+            (async () => {
+              ['firstName', 'lastName', 'email', 'phone', 'age', 'address'].forEach(text);
+              if (has('gender')) {
+                const radio = document.querySelector("input[name='gender'][value='" + d.gender + "']");
+                if (!radio) throw new Error("No gender option '" + d.gender + "'");
+                if (!radio.checked) radio.click();
+              }
+              // each selection loads the options of the next select
+              for (const id of ['country', 'state', 'city']) {
+                await locationsIdle();
+                select(id);
+              }
+              await locationsIdle();
+              ['password', 'confirmPassword'].forEach(text);
+              const terms = document.getElementById('terms');
+              if (terms.checked !== d.terms) terms.click();
+            })().then(() => done(null), e => done(String(e && e.message || e)));
+            """;
+
+    private final WebDriver driver;
+
+    public RegistrationForm(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    public RegistrationForm fill(RegistrationData data) {
+        return fill(data, Mode.FAST);
+    }
+
+    public RegistrationForm fill(RegistrationData data, Mode mode) {
+        try (LatencyRecorder.Marker ignored = LatencyRecorder.step("form.fill." + mode.name().toLowerCase())) {
+            if (mode == Mode.FAST) {
+                Object error = ((JavascriptExecutor) driver).executeAsyncScript(FILL_SCRIPT, data.toFieldMap());
+                if (error != null) throw new JavascriptException("Could not fill the form: " + error);
+            } else {
+                type(data);
+            }
+        }
+        return this;
+    }
+
+    public boolean isSubmitEnabled() {
+        WebElement submit = driver.findElement(By.id("submitBtn"));
+        String disabled = submit.getAttribute("disabled");
+        return (disabled == null || disabled.isEmpty()) && submit.isEnabled();
+    }
+
+    public void submit() {
+        driver.findElement(By.id("submitBtn")).click();
+    }
+
+    private void type(RegistrationData data) {
+        typeInto("firstName", data.firstName());
+        typeInto("lastName", data.lastName());
+        typeInto("email", data.email());
+        typeInto("phone", data.phone());
+        typeInto("age", data.age());
+        typeInto("address", data.address());
+        if (present(data.gender())) {
+            WebElement radio = driver.findElement(By.cssSelector("input[name='gender'][value='" + data.gender() + "']"));
+            if (!radio.isSelected()) radio.click();
+        }
+        selectOption("country", data.country());
+        selectOption("state", data.state());
+        selectOption("city", data.city());
+        typeInto("password", data.password());
+        typeInto("confirmPassword", data.confirmPassword());
+        WebElement terms = driver.findElement(By.id("terms"));
+        if (terms.isSelected() != data.acceptTerms()) terms.click();
+    }
+
+    private void typeInto(String id, String value) {
+        if (!present(value)) return;
+        WebElement el = driver.findElement(By.id(id));
+        el.clear();
+        el.sendKeys(value);
+    }
+
+    /** Waits for the page to finish loading location options, then selects by value. */
+    private void selectOption(String id, String value) {
+        if (!present(value)) return;
+        FormWaits.forLocations(driver, Duration.ofSeconds(20));
+        new Select(driver.findElement(By.id(id))).selectByValue(value);
+    }
+
+    private static boolean present(String value) {
+        return value != null && !value.isEmpty();
+    }
+}
@@ -0,0 +1,60 @@
+package com.frugaltests;
+
+import org.junit.jupiter.api.*;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-scenario timing of RegistrationForm: one batched executeScript (FAST) vs sendKeys typing (TYPING).
+ * Run with: mvn -Pbenchmark test -Dtest=RegistrationFormBenchmark [-Dfrugal.bench.rounds=10]
+ */
+@Tag("benchmark")
+@RegistrationFlow
+public class RegistrationFormBenchmark {
+
+    private static final String FORM_VALUES =
+            "return Array.from(document.querySelectorAll('#regForm input, #regForm select, #regForm textarea'))"
+                    + ".map(e => e.id + '=' + ((e.type === 'checkbox' || e.type === 'radio') ? e.checked : e.value)).join('|');";
+
+    @Test
+    @DisplayName("Benchmark: fill time per scenario, fast mode vs typing mode")
+    public void compareFillModes(WebDriver driver, @PageUrl String page) {
+        int rounds = Integer.getInteger("frugal.bench.rounds", 5);
+        Map<String, RegistrationData> scenarios = new LinkedHashMap<>();
+        scenarios.put("positive", RegistrationData.valid());
+        scenarios.put("negative (no last name)", RegistrationData.valid().withLastName(null));
+        scenarios.put("flow C (invalid inputs)", RegistrationData.valid()
+                .withEmail("bad-email").withPhone("9876543210").withPasswords("Abcd@1234", "Xyz@1234").withTerms(false));
+
+        System.out.printf("%-26s %12s %12s %9s%n", "scenario", "fast (ms)", "typing (ms)", "speedup");
+        for (Map.Entry<String, RegistrationData> scenario : scenarios.entrySet()) {
+            double fast = averageMillis(driver, page, scenario.getValue(), RegistrationForm.Mode.FAST, rounds);
+            String fastState = formValues(driver);
+            double typing = averageMillis(driver, page, scenario.getValue(), RegistrationForm.Mode.TYPING, rounds);
+            String typingState = formValues(driver);
+
+            Assertions.assertEquals(typingState, fastState,
+                    "Both fill modes should leave the form in the same state for " + scenario.getKey());
+            System.out.printf("%-26s %12.1f %12.1f %8.1fx%n", scenario.getKey(), fast, typing, typing / fast);
+        }
+    }
+
+    private double averageMillis(WebDriver driver, String page, RegistrationData data, RegistrationForm.Mode mode, int rounds) {
+        long total = 0;
+        for (int i = 0; i < rounds; i++) {
+            driver.get(page);
+            RegistrationForm form = new RegistrationForm(driver);
+            long start = System.nanoTime();
+            form.fill(data, mode);
+            total += System.nanoTime() - start;
+        }
+        return total / 1e6 / rounds;
+    }
+
+    private static String formValues(WebDriver driver) {
+        return (String) ((JavascriptExecutor) driver).executeScript(FORM_VALUES);
+    }
+}
@@ -0,0 +1,270 @@
+package com.frugaltests;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only record log in a memory-mapped file, written with group commit.
+ * - Callers {@link #append(byte[])} and get a future; one writer thread collects up to {@code batchSize}
+ *   records (waiting at most {@code flushInterval} after the first one), copies them into the mapping and
+ *   forces it to disk once for the whole batch. The futures complete only after that force.
+ * - Record layout: int length, int CRC32, payload. A zero length marks the end; on open the log is scanned
+ *   up to the first missing or corrupt record, so a torn tail after a crash is overwritten.
+ * - The mapping grows in steps of {@code GROWTH} bytes (at least doubling), the file is trimmed on close.
+ * - One process per file: the file is locked while open.
+ */
+final class RegistrationLog implements AutoCloseable {
+
+    static final int HEADER = 8;
+    static final int GROWTH = 1 << 20;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final FileLock lock;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private final AtomicLong appended = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final List<byte[]> recovered;
+    private MappedByteBuffer buffer;
+    private long position;
+    private volatile boolean closed;
+
+    private record Pending(byte[] payload, CompletableFuture<Long> done) {
+    }
+
+    /** Queued by {@link #close()} behind the last record; the writer stops when it takes it. */
+    private static final Pending STOP = new Pending(new byte[0], null);
+
+    /** The file is locked by another process, or by another open log in this JVM. */
+    static final class InUseException extends IOException {
+        InUseException(Path file) {
+            super("Log is already in use: " + file);
+        }
+    }
+
+    private RegistrationLog(Path file, FileChannel channel, FileLock lock, int batchSize, Duration flushInterval)
+            throws IOException {
+        this.file = file;
+        this.channel = channel;
+        this.lock = lock;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(GROWTH, channel.size()));
+        this.recovered = scan();
+        this.writer = new Thread(this::run, "registration-log");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Opens (or creates) the log.
+     *
+     * @param batchSize     most records forced to disk together
+     * @param flushInterval longest time the first record of a batch waits for more records
+     * @throws InUseException if the file is locked
+     */
+    static RegistrationLog open(Path file, int batchSize, Duration flushInterval) throws IOException {
+        if (batchSize < 1) throw new IllegalArgumentException("batchSize must be at least 1: " + batchSize);
+        if (flushInterval.isNegative()) throw new IllegalArgumentException("flushInterval must not be negative");
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        FileLock lock;
+        try {
+            lock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        if (lock == null) {
+            channel.close();
+            throw new InUseException(file);
+        }
+        try {
+            return new RegistrationLog(file, channel, lock, batchSize, flushInterval);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /** Queues a record; the future completes with its sequence number (0-based) once it is on disk. */
+    CompletableFuture<Long> append(byte[] payload) {
+        CompletableFuture<Long> done = new CompletableFuture<>();
+        synchronized (queue) {
+            if (closed) {
+                done.completeExceptionally(new IllegalStateException("Log is closed: " + file));
+            } else {
+                queue.add(new Pending(payload.clone(), done));
+            }
+        }
+        return done;
+    }
+
+    /** Records that were already in the file when it was opened, oldest first. */
+    List<byte[]> recovered() {
+        return recovered;
+    }
+
+    /** Records written since the log was opened. */
+    long appended() {
+        return appended.get();
+    }
+
+    /** Number of forces to disk; with group commit much smaller than {@link #appended()} under load. */
+    long flushes() {
+        return flushes.get();
+    }
+
+    Path file() {
+        return file;
+    }
+
+    /** Writes what is queued, stops the writer and trims the file to its records. */
+    @Override
+    public void close() throws IOException {
+        synchronized (queue) {
+            if (closed) return;
+            closed = true;
+            // no interrupt: FileChannel is interruptible and would be closed in the middle of a commit
+            queue.add(STOP);
+        }
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            buffer.force();
+            buffer = null;
+            try {
+                channel.truncate(position);
+            } catch (IOException e) {
+                // Windows refuses to truncate while the mapping is still alive; the zero tail is read as the end
+            }
+            lock.release();
+            channel.close();
+        }
+    }
+
+    private List<byte[]> scan() {
+        List<byte[]> records = new ArrayList<>();
+        CRC32 crc = new CRC32();
+        long pos = 0;
+        while (pos + HEADER <= buffer.capacity()) {
+            int length = buffer.getInt((int) pos);
+            if (length <= 0 || pos + HEADER + length > buffer.capacity()) break;
+            byte[] payload = new byte[length];
+            buffer.get((int) pos + HEADER, payload);
+            crc.reset();
+            crc.update(payload);
+            if ((int) crc.getValue() != buffer.getInt((int) pos + 4)) break;
+            records.add(payload);
+            pos += HEADER + length;
+        }
+        position = pos;
+        return List.copyOf(records);
+    }
+
+    /** Writes batches until it takes {@link #STOP}; nothing can be queued behind it, so every record is written. */
+    private void run() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        boolean stopped = false;
+        while (!stopped) {
+            try {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                queue.drainTo(batch, batchSize - batch.size());
+                while (!closed && batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    Pending next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) break;
+                    batch.add(next);
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+            } catch (InterruptedException e) {
+                // not used to stop the writer: write what has been collected and go on until STOP
+            }
+            stopped = !batch.isEmpty() && batch.get(batch.size() - 1) == STOP;
+            if (stopped) batch.remove(batch.size() - 1);
+            if (!batch.isEmpty()) commit(batch);
+            batch.clear();
+        }
+    }
+
+    private synchronized void commit(List<Pending> batch) {
+        long[] sequence = new long[batch.size()];
+        try {
+            CRC32 crc = new CRC32();
+            for (int i = 0; i < batch.size(); i++) {
+                byte[] payload = batch.get(i).payload();
+                ensureCapacity(position + HEADER + payload.length + HEADER);
+                crc.reset();
+                crc.update(payload);
+                int at = (int) position;
+                buffer.putInt(at + 4, (int) crc.getValue());
+                buffer.put(at + HEADER, payload);
+                buffer.putInt(at, payload.length);
+                position += HEADER + payload.length;
+                sequence[i] = recovered.size() + appended.getAndIncrement();
+            }
+            // end marker, so a longer record torn before the crash is not read past this batch
+            buffer.putInt((int) position, 0);
+            buffer.force();
+            flushes.incrementAndGet();
+        } catch (IOException | RuntimeException e) {
+            batch.forEach(p -> p.done().completeExceptionally(e));
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) batch.get(i).done().complete(sequence[i]);
+    }
+
+    private void ensureCapacity(long needed) throws IOException {
+        if (needed <= buffer.capacity()) return;
+        long capacity = Math.max(needed, Math.max((long) buffer.capacity() * 2, buffer.capacity() + (long) GROWTH));
+        if (capacity > Integer.MAX_VALUE) throw new UncheckedIOException(new IOException("Log is full: " + file));
+        buffer.force();
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    /** Reads the records of a log that is not open (e.g. after the server stopped). */
+    static List<byte[]> read(Path file) throws IOException {
+        List<byte[]> records = new ArrayList<>();
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file));
+        CRC32 crc = new CRC32();
+        while (data.remaining() >= HEADER) {
+            int length = data.getInt();
+            int checksum = data.getInt();
+            if (length <= 0 || length > data.remaining()) break;
+            byte[] payload = new byte[length];
+            data.get(payload);
+            crc.reset();
+            crc.update(payload);
+            if ((int) crc.getValue() != checksum) break;
+            records.add(payload);
+        }
+        return records;
+    }
+}
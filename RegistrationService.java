@@ -0,0 +1,245 @@
+package com.frugaltests;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Registration backend the form posts to, mounted on the {@link StaticServer} at {@value #PATH}.
+ * - Request: JSON in the shape of {@link RegistrationData#toFieldMap()} plus an {@code Idempotency-Key} header.
+ * - The payload is validated again with {@link RegistrationValidator}; errors come back as 422
+ *   {@code {"errors":{"emailError":"..."}}}, keyed like the page's error elements.
+ * - Accepted registrations are appended to a {@link RegistrationLog} (group commit) and answered with 201
+ *   {@code {"id":"...","replayed":false}} once on disk. Passwords are checked but never stored.
+ * - The same key with the same payload returns the first registration (200, {@code "replayed":true}),
+ *   also while the first request is still being written; the same key with other values is a 409.
+ *   Keys survive a restart: they are read back from the log.
+ *
+ * System properties: {@value #LOG_FILE} (default target/registrations/registrations.log),
+ * {@value #BATCH_SIZE} (default 64) and {@value #FLUSH_INTERVAL} (default 2).
+ */
+public final class RegistrationService implements HttpHandler, AutoCloseable {
+
+    public static final String PATH = "/api/registrations";
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    public static final String LOG_FILE = "frugal.registrations.log";
+    public static final String BATCH_SIZE = "frugal.registrations.batch";
+    public static final String FLUSH_INTERVAL = "frugal.registrations.flush.ms";
+
+    static final int MAX_BODY = 64 * 1024;
+    static final int MAX_KEY_LENGTH = 255;
+
+    /** Values written to the log; everything else in the payload (passwords, terms) is dropped. */
+    private static final String[] STORED_FIELDS = {
+            "firstName", "lastName", "email", "phone", "age", "gender", "address", "country", "state", "city"
+    };
+
+    private final Json json = new Json();
+    private final RegistrationLog log;
+    private final Map<String, Entry> byKey = new ConcurrentHashMap<>();
+
+    /** Status code and JSON body of an answer. */
+    public record Result(int status, Map<String, Object> body) {
+    }
+
+    private record Entry(String fingerprint, CompletableFuture<String> id) {
+    }
+
+    RegistrationService(RegistrationLog log) {
+        this.log = log;
+        for (byte[] record : log.recovered()) {
+            Map<String, Object> stored = json.toType(new String(record, StandardCharsets.UTF_8), Json.MAP_TYPE);
+            byKey.put((String) stored.get("key"),
+                    new Entry((String) stored.get("fingerprint"), CompletableFuture.completedFuture((String) stored.get("id"))));
+        }
+    }
+
+    public static RegistrationService open(Path logFile, int batchSize, Duration flushInterval) throws IOException {
+        return new RegistrationService(RegistrationLog.open(logFile, batchSize, flushInterval));
+    }
+
+    /**
+     * Opens the log configured by the system properties. A second JVM on the same file (e.g. a parallel shard)
+     * gets a file of its own, registrations-&lt;pid&gt;.log; its keys are not recovered by later runs on the
+     * configured file. Any other error opening the log is thrown.
+     */
+    static RegistrationService fromSystemProperties() throws IOException {
+        Path file = Path.of(System.getProperty(LOG_FILE, "target/registrations/registrations.log"));
+        int batchSize = Integer.getInteger(BATCH_SIZE, 64);
+        Duration flushInterval = Duration.ofMillis(Long.getLong(FLUSH_INTERVAL, 2));
+        try {
+            return open(file, batchSize, flushInterval);
+        } catch (RegistrationLog.InUseException e) {
+            String name = file.getFileName().toString().replaceFirst("\\.log$", "");
+            Path own = file.resolveSibling(name + "-" + ProcessHandle.current().pid() + ".log");
+            System.err.println(e.getMessage() + "; registrations of this JVM go to " + own.toAbsolutePath());
+            return open(own, batchSize, flushInterval);
+        }
+    }
+
+    /** Validates and stores one registration; the future completes once the answer is known (and durable). */
+    public CompletableFuture<Result> register(String idempotencyKey, RegistrationData data) {
+        if (idempotencyKey == null || idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            return CompletableFuture.completedFuture(error(400, IDEMPOTENCY_KEY + " header of 1-" + MAX_KEY_LENGTH + " characters required"));
+        }
+        Map<String, String> errors = RegistrationValidator.validate(data);
+        if (!errors.isEmpty()) {
+            return CompletableFuture.completedFuture(new Result(422, Map.of("errors", errors)));
+        }
+
+        Map<String, Object> fields = storedFields(data);
+        String fingerprint = fingerprint(fields);
+        Entry mine = new Entry(fingerprint, new CompletableFuture<>());
+        Entry existing = byKey.putIfAbsent(idempotencyKey, mine);
+        if (existing != null) {
+            if (!existing.fingerprint().equals(fingerprint)) {
+                return CompletableFuture.completedFuture(error(409, IDEMPOTENCY_KEY + " was already used for other values"));
+            }
+            return existing.id().thenApply(id -> accepted(200, id, true));
+        }
+
+        String id = UUID.randomUUID().toString();
+        Map<String, Object> record = new LinkedHashMap<>();
+        record.put("id", id);
+        record.put("key", idempotencyKey);
+        record.put("fingerprint", fingerprint);
+        record.put("receivedAt", Instant.now().toString());
+        record.put("fields", fields);
+        log.append(json.toJson(record).getBytes(StandardCharsets.UTF_8)).whenComplete((seq, e) -> {
+            if (e == null) {
+                mine.id().complete(id);
+            } else {
+                // nothing was stored: a retry with the same key may try again
+                byKey.remove(idempotencyKey, mine);
+                mine.id().completeExceptionally(e);
+            }
+        });
+        return mine.id().handle((stored, e) -> e == null ? accepted(201, stored, false)
+                : error(503, "Registration could not be stored, please retry"));
+    }
+
+    /** Registrations stored since the service was opened; group commits of the underlying log. */
+    long stored() {
+        return log.appended();
+    }
+
+    long flushes() {
+        return log.flushes();
+    }
+
+    Path logFile() {
+        return log.file();
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", "POST");
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            Result result;
+            byte[] body = readBody(exchange.getRequestBody());
+            if (body == null) {
+                result = error(413, "Payload larger than " + MAX_BODY + " bytes");
+            } else {
+                result = parse(body)
+                        .map(data -> await(register(exchange.getRequestHeaders().getFirst(IDEMPOTENCY_KEY), data)))
+                        .orElseGet(() -> error(400, "Body must be a JSON object"));
+            }
+            byte[] response = json.toJson(result.body()).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.getResponseHeaders().set("Cache-Control", "no-store");
+            exchange.sendResponseHeaders(result.status(), response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        log.close();
+    }
+
+    private Optional<RegistrationData> parse(byte[] body) {
+        try {
+            Object value = json.toType(new String(body, StandardCharsets.UTF_8), Object.class);
+            if (!(value instanceof Map<?, ?> map)) return Optional.empty();
+            @SuppressWarnings("unchecked")
+            Map<String, ?> fields = (Map<String, ?>) map;
+            return Optional.of(RegistrationData.fromFieldMap(fields));
+        } catch (JsonException | ClassCastException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static Result await(CompletableFuture<Result> result) {
+        try {
+            return result.get(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return error(503, "Interrupted");
+        } catch (ExecutionException | TimeoutException e) {
+            return error(503, "Registration could not be stored, please retry");
+        }
+    }
+
+    /** Reads at most MAX_BODY bytes; null when the body is larger. */
+    private static byte[] readBody(InputStream in) throws IOException {
+        byte[] body = in.readNBytes(MAX_BODY + 1);
+        return body.length > MAX_BODY ? null : body;
+    }
+
+    private static Map<String, Object> storedFields(RegistrationData data) {
+        Map<String, Object> all = data.toFieldMap();
+        Map<String, Object> fields = new LinkedHashMap<>();
+        for (String name : STORED_FIELDS) {
+            Object value = all.get(name);
+            fields.put(name, value == null ? "" : RegistrationValidator.trim(value.toString()));
+        }
+        return fields;
+    }
+
+    private String fingerprint(Map<String, Object> fields) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(json.toJson(fields).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Result accepted(int status, String id, boolean replayed) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("id", id);
+        body.put("replayed", replayed);
+        return new Result(status, body);
+    }
+
+    private static Result error(int status, String message) {
+        return new Result(status, Map.of("error", message));
+    }
+}
@@ -0,0 +1,168 @@
+package com.frugaltests;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registration backend: group-committed log, recovery, server-side validation and idempotency keys.
+ */
+public class RegistrationServiceTest {
+
+    private final Json json = new Json();
+
+    @Test
+    @DisplayName("Concurrent appends are forced to disk in batches and read back in order")
+    public void testGroupCommit(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("group.log");
+        RegistrationLog log = RegistrationLog.open(file, 32, Duration.ofMillis(20));
+        List<CompletableFuture<Long>> appends = new ArrayList<>();
+        for (int i = 0; i < 200; i++) appends.add(log.append(("record-" + i).getBytes(StandardCharsets.UTF_8)));
+        CompletableFuture.allOf(appends.toArray(new CompletableFuture<?>[0])).get(10, TimeUnit.SECONDS);
+
+        Assertions.assertEquals(200, log.appended());
+        Assertions.assertTrue(log.flushes() <= 200 / 32 + 2, "expected group commits, got " + log.flushes() + " flushes");
+        for (int i = 0; i < 200; i++) Assertions.assertEquals(i, appends.get(i).get());
+        log.close();
+
+        List<byte[]> records = RegistrationLog.read(file);
+        Assertions.assertEquals(200, records.size());
+        Assertions.assertEquals("record-199", new String(records.get(199), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Reopening recovers the records before a torn tail and appends after them")
+    public void testRecovery(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("torn.log");
+        try (RegistrationLog log = RegistrationLog.open(file, 1, Duration.ZERO)) {
+            log.append("a".getBytes(StandardCharsets.UTF_8)).get();
+            log.append("b".getBytes(StandardCharsets.UTF_8)).get();
+            Assertions.assertEquals(2, log.flushes());
+        }
+        // half a record: header claiming 100 bytes, 3 bytes of payload
+        Files.write(file, new byte[]{0, 0, 0, 100, 1, 2, 3, 4, 'x', 'y', 'z'}, StandardOpenOption.APPEND);
+
+        try (RegistrationLog log = RegistrationLog.open(file, 8, Duration.ZERO)) {
+            Assertions.assertEquals(2, log.recovered().size());
+            Assertions.assertEquals(2L, log.append("c".getBytes(StandardCharsets.UTF_8)).get());
+        }
+        List<String> records = RegistrationLog.read(file).stream().map(b -> new String(b, StandardCharsets.UTF_8)).toList();
+        Assertions.assertEquals(List.of("a", "b", "c"), records);
+    }
+
+    @Test
+    @DisplayName("Only a log locked by another owner falls back to a file of its own")
+    public void testLockedLogFallback(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("registrations.log");
+        String previous = System.setProperty(RegistrationService.LOG_FILE, file.toString());
+        try (RegistrationLog owner = RegistrationLog.open(file, 1, Duration.ZERO)) {
+            Assertions.assertThrows(RegistrationLog.InUseException.class, () -> RegistrationLog.open(file, 1, Duration.ZERO));
+            try (RegistrationService second = RegistrationService.fromSystemProperties()) {
+                Assertions.assertEquals(dir.resolve("registrations-" + ProcessHandle.current().pid() + ".log"), second.logFile());
+            }
+
+            System.setProperty(RegistrationService.LOG_FILE, dir.toString());
+            IOException e = Assertions.assertThrows(IOException.class, RegistrationService::fromSystemProperties);
+            Assertions.assertFalse(e instanceof RegistrationLog.InUseException, "a directory is not a locked log");
+        } finally {
+            if (previous == null) System.clearProperty(RegistrationService.LOG_FILE);
+            else System.setProperty(RegistrationService.LOG_FILE, previous);
+        }
+    }
+
+    @Test
+    @DisplayName("A double submit with one key stores a single registration, also after a restart")
+    public void testIdempotency(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("registrations.log");
+        RegistrationData data = RegistrationData.valid();
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        List<Integer> statuses = new ArrayList<>();
+        try (RegistrationService service = RegistrationService.open(file, 16, Duration.ofMillis(5))) {
+            ExecutorService clicks = Executors.newFixedThreadPool(8);
+            List<CompletableFuture<RegistrationService.Result>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(CompletableFuture.supplyAsync(() -> service.register("key-1", data), clicks).thenCompose(r -> r));
+            }
+            for (CompletableFuture<RegistrationService.Result> r : results) {
+                RegistrationService.Result result = r.get(10, TimeUnit.SECONDS);
+                statuses.add(result.status());
+                ids.add((String) result.body().get("id"));
+            }
+            clicks.shutdown();
+
+            Assertions.assertEquals(1, statuses.stream().filter(s -> s == 201).count(), "one registration created: " + statuses);
+            Assertions.assertEquals(7, statuses.stream().filter(s -> s == 200).count(), "the others are replays: " + statuses);
+            Assertions.assertEquals(1, ids.size());
+            Assertions.assertEquals(1, service.stored());
+            Assertions.assertEquals(409, service.register("key-1", data.withFirstName("Jane")).get().status());
+        }
+
+        try (RegistrationService reopened = RegistrationService.open(file, 16, Duration.ofMillis(5))) {
+            RegistrationService.Result replay = reopened.register("key-1", data).get();
+            Assertions.assertEquals(200, replay.status());
+            Assertions.assertEquals(ids.iterator().next(), replay.body().get("id"));
+            Assertions.assertEquals(0, reopened.stored());
+        }
+        Map<String, Object> stored = json.toType(new String(RegistrationLog.read(file).get(0), StandardCharsets.UTF_8), Json.MAP_TYPE);
+        Assertions.assertFalse(json.toJson(stored).contains(data.password()), "passwords are never stored");
+    }
+
+    @Test
+    @DisplayName("The endpoint re-validates the payload and requires an idempotency key")
+    @SuppressWarnings("unchecked")
+    public void testEndpoint() throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        URI endpoint = StaticServer.get().url(RegistrationService.PATH.substring(1));
+        String valid = json.toJson(RegistrationData.valid().toFieldMap());
+        String key = "endpoint-" + System.nanoTime();
+
+        HttpResponse<String> created = client.send(post(endpoint, valid, key), HttpResponse.BodyHandlers.ofString());
+        Assertions.assertEquals(201, created.statusCode(), created.body());
+        HttpResponse<String> replayed = client.send(post(endpoint, valid, key), HttpResponse.BodyHandlers.ofString());
+        Assertions.assertEquals(200, replayed.statusCode());
+        Assertions.assertEquals(parse(created.body()).get("id"), parse(replayed.body()).get("id"));
+
+        String invalid = json.toJson(RegistrationData.valid().withEmail("user@mailinator.com").toFieldMap());
+        HttpResponse<String> rejected = client.send(post(endpoint, invalid, key + "-2"), HttpResponse.BodyHandlers.ofString());
+        Assertions.assertEquals(422, rejected.statusCode());
+        Map<String, Object> errors = (Map<String, Object>) parse(rejected.body()).get("errors");
+        Assertions.assertEquals("Disposable emails are not allowed", errors.get("emailError"));
+
+        Assertions.assertEquals(400, client.send(post(endpoint, valid, null), HttpResponse.BodyHandlers.ofString()).statusCode());
+        Assertions.assertEquals(400, client.send(post(endpoint, "[1,2]", key + "-3"), HttpResponse.BodyHandlers.ofString()).statusCode());
+        Assertions.assertEquals(405, client.send(HttpRequest.newBuilder(endpoint).GET().build(),
+                HttpResponse.BodyHandlers.discarding()).statusCode());
+    }
+
+    private Map<String, Object> parse(String body) {
+        return json.toType(body, Json.MAP_TYPE);
+    }
+
+    private static HttpRequest post(URI uri, String body, String key) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (key != null) request.header(RegistrationService.IDEMPOTENCY_KEY, key);
+        return request.build();
+    }
+}
@@ -0,0 +1,192 @@
+package com.frugaltests;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Pure-Java mirror of the validation rules in script.js ({@code validateField} / {@code checkPassword}).
+ * - Returns the exact messages the page shows, keyed by error element id (firstNameError, confirmError, ...).
+ * - Uses JavaScript semantics where they differ from Java: {@code \s} and {@code trim()} cover the ECMAScript
+ *   whitespace set, {@code \d} is ASCII only.
+ * - Regexes are hand-rolled scanners, so the field checks allocate nothing and run millions of times per second.
+ *
+ * Keep in sync with script.js; {@code ValidatorDifferentialTest} compares both on generated inputs.
+ */
+public final class RegistrationValidator {
+
+    public static final List<String> DISPOSABLE_DOMAINS =
+            List.of("tempmail.com", "mailinator.com", "10minutemail.com", "yopmail.com", "disposable.com");
+
+    /** Minimum {@link #passwordScore(String)} the page accepts. */
+    public static final int MIN_PASSWORD_SCORE = 2;
+
+    private RegistrationValidator() {
+    }
+
+    /** All errors the page would show for these values, keyed by error element id; empty when valid. */
+    public static Map<String, String> validate(RegistrationData d) {
+        Map<String, String> errors = new LinkedHashMap<>();
+        put(errors, "firstNameError", firstName(d.firstName()));
+        put(errors, "lastNameError", lastName(d.lastName()));
+        put(errors, "emailError", email(d.email()));
+        put(errors, "phoneError", phone(d.phone(), !isEmpty(d.country())));
+        put(errors, "genderError", isEmpty(d.gender()) ? "Please select a gender" : null);
+        put(errors, "countryError", isEmpty(d.country()) ? "Country is required" : null);
+        put(errors, "stateError", isEmpty(d.state()) ? "State is required" : null);
+        put(errors, "cityError", isEmpty(d.city()) ? "City is required" : null);
+        put(errors, "passwordError", password(d.password()));
+        put(errors, "confirmError", confirmPassword(d.password(), d.confirmPassword()));
+        put(errors, "termsError", d.acceptTerms() ? null : "You must accept terms");
+        return errors;
+    }
+
+    public static boolean isValid(RegistrationData d) {
+        return validate(d).isEmpty();
+    }
+
+    public static String firstName(String value) {
+        return isBlank(value) ? "First name is required" : null;
+    }
+
+    public static String lastName(String value) {
+        return isBlank(value) ? "Last name is required" : null;
+    }
+
+    /** {@code /^[^@\s]+@[^@\s]+\.[^@\s]+$/} plus the disposable-domain list. */
+    public static String email(String raw) {
+        String v = raw == null ? "" : trim(raw);
+        if (v.isEmpty()) return "Email is required";
+        int at = -1;
+        for (int i = 0; i < v.length(); i++) {
+            char c = v.charAt(i);
+            if (isJsWhitespace(c)) return "Enter a valid email";
+            if (c == '@') {
+                if (at >= 0) return "Enter a valid email";
+                at = i;
+            }
+        }
+        if (at <= 0) return "Enter a valid email";
+        // domain part must contain a '.' with at least one character on each side
+        boolean dot = false;
+        for (int i = at + 2; i < v.length() - 1; i++) {
+            if (v.charAt(i) == '.') {
+                dot = true;
+                break;
+            }
+        }
+        if (!dot) return "Enter a valid email";
+        String domain = v.substring(at + 1).toLowerCase(Locale.ROOT);
+        if (DISPOSABLE_DOMAINS.contains(domain)) return "Disposable emails are not allowed";
+        return null;
+    }
+
+    /**
+     * With a country selected: {@code /^\+\d{1,4}[\s-]?\d{6,14}$/},
+     * otherwise: {@code /^\+?\d[\d\s-]{5,}$/}.
+     */
+    public static String phone(String raw, boolean countrySelected) {
+        String v = raw == null ? "" : trim(raw);
+        if (v.isEmpty()) return "Phone number is required";
+        if (countrySelected) {
+            return matchesInternationalPhone(v)
+                    ? null : "Phone must include a valid country code and digits (e.g. +91 9876543210)";
+        }
+        return matchesLoosePhone(v) ? null : "Enter a valid phone number";
+    }
+
+    public static String password(String value) {
+        return passwordScore(value == null ? "" : value) < MIN_PASSWORD_SCORE ? "Password too weak" : null;
+    }
+
+    public static String confirmPassword(String password, String confirm) {
+        String p = password == null ? "" : password;
+        String c = confirm == null ? "" : confirm;
+        return c.equals(p) ? null : "Confirm password must match";
+    }
+
+    /** {@code checkPassword}: one point each for length >= 8, an A-Z, a 0-9 and a character outside [A-Za-z0-9]. */
+    public static int passwordScore(String pass) {
+        boolean upper = false, digit = false, other = false;
+        for (int i = 0; i < pass.length(); i++) {
+            char c = pass.charAt(i);
+            if (c >= 'A' && c <= 'Z') upper = true;
+            else if (c >= '0' && c <= '9') digit = true;
+            else if (!(c >= 'a' && c <= 'z')) other = true;
+        }
+        return (pass.length() >= 8 ? 1 : 0) + (upper ? 1 : 0) + (digit ? 1 : 0) + (other ? 1 : 0);
+    }
+
+    private static boolean matchesInternationalPhone(String v) {
+        if (v.length() < 8 || v.charAt(0) != '+') return false;
+        int before = 0, after = 0;
+        boolean separator = false;
+        for (int i = 1; i < v.length(); i++) {
+            char c = v.charAt(i);
+            if (isAsciiDigit(c)) {
+                if (separator) after++; else before++;
+            } else if ((c == '-' || isJsWhitespace(c)) && !separator && before > 0) {
+                separator = true;
+            } else {
+                return false;
+            }
+        }
+        if (separator) {
+            return before <= 4 && after >= 6 && after <= 14;
+        }
+        // no separator: the digits must split into a 1-4 digit code and 6-14 digits
+        return before >= 7 && before <= 18;
+    }
+
+    private static boolean matchesLoosePhone(String v) {
+        int i = v.charAt(0) == '+' ? 1 : 0;
+        if (i >= v.length() || !isAsciiDigit(v.charAt(i))) return false;
+        int rest = 0;
+        for (i++; i < v.length(); i++) {
+            char c = v.charAt(i);
+            if (!isAsciiDigit(c) && c != '-' && !isJsWhitespace(c)) return false;
+            rest++;
+        }
+        return rest >= 5;
+    }
+
+    /** ECMAScript WhiteSpace + LineTerminator, i.e. what {@code \s} and {@code String.prototype.trim} use. */
+    static boolean isJsWhitespace(char c) {
+        switch (c) {
+            case '\t': case '\n': case 0x0B: case '\f': case '\r': case ' ':
+            case 0x00A0: case 0x1680: case 0x2028: case 0x2029: case 0x202F: case 0x205F: case 0x3000: case 0xFEFF:
+                return true;
+            default:
+                return c >= 0x2000 && c <= 0x200A;
+        }
+    }
+
+    /** JavaScript {@code String.prototype.trim}. */
+    static String trim(String s) {
+        int start = 0, end = s.length();
+        while (start < end && isJsWhitespace(s.charAt(start))) start++;
+        while (end > start && isJsWhitespace(s.charAt(end - 1))) end--;
+        return start == 0 && end == s.length() ? s : s.substring(start, end);
+    }
+
+    private static boolean isBlank(String s) {
+        if (s == null) return true;
+        for (int i = 0; i < s.length(); i++) {
+            if (!isJsWhitespace(s.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    private static boolean isEmpty(String s) {
+        return s == null || s.isEmpty();
+    }
+
+    private static boolean isAsciiDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static void put(Map<String, String> errors, String id, String message) {
+        if (message != null) errors.put(id, message);
+    }
+}
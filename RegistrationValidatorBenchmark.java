@@ -0,0 +1,78 @@
+package com.frugaltests;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH throughput of the in-JVM validator on generated inputs.
+ * Run with: mvn -Pjmh test  (or pass JMH options, e.g. -Djmh.args="-f 1 -wi 2 -i 3")
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RegistrationValidatorBenchmark {
+
+    private static final int SIZE = 4096;
+
+    private final String[] emails = new String[SIZE];
+    private final String[] phones = new String[SIZE];
+    private final String[] passwords = new String[SIZE];
+    private final boolean[] countrySelected = new boolean[SIZE];
+    private RegistrationData[] registrations;
+    private int next;
+
+    @Setup
+    public void generate() {
+        FuzzInputs inputs = new FuzzInputs(42);
+        registrations = new RegistrationData[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            emails[i] = inputs.email();
+            phones[i] = inputs.phone();
+            passwords[i] = inputs.password();
+            countrySelected[i] = inputs.nextBoolean();
+            registrations[i] = RegistrationData.valid().withEmail(emails[i]).withPhone(phones[i])
+                    .withPasswords(passwords[i], inputs.nextBoolean() ? passwords[i] : inputs.password());
+        }
+    }
+
+    private int index() {
+        return next = (next + 1) & (SIZE - 1);
+    }
+
+    @Benchmark
+    public String email() {
+        return RegistrationValidator.email(emails[index()]);
+    }
+
+    @Benchmark
+    public String phone() {
+        int i = index();
+        return RegistrationValidator.phone(phones[i], countrySelected[i]);
+    }
+
+    @Benchmark
+    public String password() {
+        return RegistrationValidator.password(passwords[index()]);
+    }
+
+    /** email + phone + password + confirm for one input, the per-field checks without building a result map. */
+    @Benchmark
+    public void fieldChecks(Blackhole bh) {
+        int i = index();
+        bh.consume(RegistrationValidator.email(emails[i]));
+        bh.consume(RegistrationValidator.phone(phones[i], countrySelected[i]));
+        bh.consume(RegistrationValidator.password(passwords[i]));
+        bh.consume(RegistrationValidator.confirmPassword(passwords[i], passwords[(i + 1) & (SIZE - 1)]));
+    }
+
+    /** The full form, including the error map. */
+    @Benchmark
+    public Object fullForm() {
+        return RegistrationValidator.validate(registrations[index()]);
+    }
+}
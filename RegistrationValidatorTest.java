@@ -0,0 +1,90 @@
+package com.frugaltests;
+
+import org.junit.jupiter.api.*;
+
+import java.util.Map;
+
+/**
+ * RegistrationValidator against the rules and messages in script.js.
+ */
+public class RegistrationValidatorTest {
+
+    @Test
+    @DisplayName("The positive flow's data is valid")
+    public void testValidRegistration() {
+        Assertions.assertEquals(Map.of(), RegistrationValidator.validate(RegistrationData.valid()));
+        Assertions.assertTrue(RegistrationValidator.isValid(RegistrationData.valid()));
+    }
+
+    @Test
+    @DisplayName("The negative flow's data only misses the last name")
+    public void testMissingLastName() {
+        RegistrationData data = RegistrationData.valid().withLastName(null).withEmail("john.example@test.com");
+        Assertions.assertEquals(Map.of("lastNameError", "Last name is required"), RegistrationValidator.validate(data));
+        Assertions.assertEquals("Last name is required", RegistrationValidator.lastName(" \u00a0\t"));
+    }
+
+    @Test
+    @DisplayName("Flow C's data shows the email, phone, confirm and terms errors")
+    public void testFlowCInvalidInputs() {
+        RegistrationData data = RegistrationData.valid()
+                .withEmail("bad-email")
+                .withPhone("9876543210")
+                .withPasswords("Abcd@1234", "Xyz@1234")
+                .withTerms(false);
+        Map<String, String> errors = RegistrationValidator.validate(data);
+        Assertions.assertEquals("Enter a valid email", errors.get("emailError"));
+        Assertions.assertEquals("Phone must include a valid country code and digits (e.g. +91 9876543210)", errors.get("phoneError"));
+        Assertions.assertEquals("Confirm password must match", errors.get("confirmError"));
+        Assertions.assertEquals("You must accept terms", errors.get("termsError"));
+        Assertions.assertEquals(4, errors.size());
+    }
+
+    @Test
+    @DisplayName("Email: format, disposable domains (case-insensitive) and JS whitespace")
+    public void testEmail() {
+        Assertions.assertNull(RegistrationValidator.email("  john.doe@example.com  "));
+        Assertions.assertNull(RegistrationValidator.email("a@b.c"));
+        Assertions.assertNull(RegistrationValidator.email("a@.b.c"));
+        Assertions.assertEquals("Email is required", RegistrationValidator.email("\u2028 "));
+        Assertions.assertEquals("Enter a valid email", RegistrationValidator.email("a@b."));
+        Assertions.assertEquals("Enter a valid email", RegistrationValidator.email("a@.b"));
+        Assertions.assertEquals("Enter a valid email", RegistrationValidator.email("@b.c"));
+        Assertions.assertEquals("Enter a valid email", RegistrationValidator.email("a@b@c.d"));
+        Assertions.assertEquals("Enter a valid email", RegistrationValidator.email("a b@c.d"));
+        Assertions.assertEquals("Enter a valid email", RegistrationValidator.email("a\u00a0b@c.d"));
+        Assertions.assertEquals("Disposable emails are not allowed", RegistrationValidator.email("x@Mailinator.COM"));
+        Assertions.assertNull(RegistrationValidator.email("x@sub.mailinator.com"));
+    }
+
+    @Test
+    @DisplayName("Phone: international format once a country is selected, loose format otherwise")
+    public void testPhone() {
+        Assertions.assertNull(RegistrationValidator.phone("+91 9876543210", true));
+        Assertions.assertNull(RegistrationValidator.phone("+1-4155550100", true));
+        Assertions.assertNull(RegistrationValidator.phone("+1234567", true));
+        Assertions.assertNull(RegistrationValidator.phone("+123456789012345678", true));
+        Assertions.assertNotNull(RegistrationValidator.phone("+1234567890123456789", true));
+        Assertions.assertNotNull(RegistrationValidator.phone("+12345 987654", true));
+        Assertions.assertNotNull(RegistrationValidator.phone("+91 98765 43210", true));
+        Assertions.assertNotNull(RegistrationValidator.phone("+ 919876543210", true));
+        Assertions.assertNotNull(RegistrationValidator.phone("9876543210", true));
+        Assertions.assertEquals("Phone number is required", RegistrationValidator.phone("", true));
+
+        Assertions.assertNull(RegistrationValidator.phone("9876543210", false));
+        Assertions.assertNull(RegistrationValidator.phone("+9 8-7 6", false));
+        Assertions.assertEquals("Enter a valid phone number", RegistrationValidator.phone("98765", false));
+        Assertions.assertEquals("Enter a valid phone number", RegistrationValidator.phone("+-98765", false));
+    }
+
+    @Test
+    @DisplayName("Password score: length, upper case, digit, symbol; at least 2 required")
+    public void testPasswordScore() {
+        Assertions.assertEquals(0, RegistrationValidator.passwordScore("abc"));
+        Assertions.assertEquals(1, RegistrationValidator.passwordScore("abcdefgh"));
+        Assertions.assertEquals(4, RegistrationValidator.passwordScore("Abcd@1234"));
+        Assertions.assertEquals(1, RegistrationValidator.passwordScore("é"));
+        Assertions.assertEquals("Password too weak", RegistrationValidator.password("abcdefg"));
+        Assertions.assertNull(RegistrationValidator.password("abcdefg1"));
+    }
+}
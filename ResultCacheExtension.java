@@ -0,0 +1,359 @@
+package com.frugaltests;
+
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ConditionEvaluationResult;
+import org.junit.jupiter.api.extension.DynamicTestInvocationContext;
+import org.junit.jupiter.api.extension.ExecutionCondition;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.InvocationInterceptor;
+import org.openqa.selenium.BuildInfo;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Skips browser tests that already passed with exactly the same inputs.
+ * The fingerprint of a test method covers:
+ * - the served front end (index.html, script.js, style.css, locations/, baseline/) as found on the test classpath,
+ * - the bytecode of the test class and of every support class (page objects, waits, server, ...),
+ *   so editing one test class reruns only that class while editing a shared helper reruns all,
+ * - the Chrome version (which also selects the chromedriver), the Selenium and Java versions,
+ * - every {@code frugal.*} system property and the {@code frugal.*} configuration parameters the suite reads
+ *   ({@link #PARAMETERS}), so a run with other parameters is not skipped.
+ * Passing tests are recorded in {@code .test-cache/results.properties} at the end of the run; a failure
+ * removes the entry. Benchmarks and tests tagged {@value #RANDOMIZED} (new random inputs on every run,
+ * e.g. the differential fuzzer) are never skipped.
+ *
+ * -Dfrugal.cache.force=true runs everything (and refreshes the cache), -Dfrugal.cache.enabled=false
+ * switches the cache off, -Dfrugal.cache.dir moves it. All three also work as configuration parameters.
+ */
+public class ResultCacheExtension implements ExecutionCondition, BeforeEachCallback, InvocationInterceptor {
+
+    public static final String CACHE_ENABLED = "frugal.cache.enabled";
+    public static final String CACHE_FORCE = "frugal.cache.force";
+    public static final String CACHE_DIR = "frugal.cache.dir";
+
+    /** Tag of tests whose inputs change from run to run, so a previous pass says nothing about the next one. */
+    public static final String RANDOMIZED = "randomized";
+
+    /**
+     * Configuration parameters that change what a test does. JUnit cannot list the parameters of a run,
+     * so these are looked up by name; a system property of the same name is covered either way.
+     */
+    static final List<String> PARAMETERS = List.of(DriverPoolExtension.POOL_ENABLED, DeviceProfile.DEVICE_PROFILE);
+
+    static final String RESULTS_FILE = "results.properties";
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(ResultCacheExtension.class);
+    private static final List<String> ASSETS = List.of("index.html", "script.js", "style.css", "locations", "baseline");
+    private static final Map<String, String> CLASS_HASHES = new ConcurrentHashMap<>();
+    private static volatile String sharedFingerprint;
+
+    @Override
+    public ConditionEvaluationResult evaluateExecutionCondition(ExtensionContext context) {
+        if (!cacheable(context)) return ConditionEvaluationResult.enabled("not cached");
+        String fingerprint = fingerprint(context);
+        context.getStore(NAMESPACE).put("fingerprint", fingerprint);
+        if (flag(context, CACHE_FORCE, false)) return ConditionEvaluationResult.enabled("cache bypassed (" + CACHE_FORCE + ")");
+
+        Optional<String> passed = results(context).passed(context.getUniqueId(), fingerprint);
+        return passed.map(at -> ConditionEvaluationResult.disabled("Unchanged since it passed at " + at
+                        + " (run with -D" + CACHE_FORCE + "=true to force)"))
+                .orElseGet(() -> ConditionEvaluationResult.enabled("no cached pass for this fingerprint"));
+    }
+
+    /** A failing dynamic test (e.g. one scenario of a @TestFactory) keeps its factory out of the cache. */
+    @Override
+    public void interceptDynamicTest(Invocation<Void> invocation, DynamicTestInvocationContext invocationContext,
+                                     ExtensionContext extensionContext) throws Throwable {
+        try {
+            invocation.proceed();
+        } catch (Throwable t) {
+            extensionContext.getParent().map(parent -> parent.getStore(NAMESPACE).get(Outcome.class, Outcome.class))
+                    .ifPresent(Outcome::dynamicTestFailed);
+            throw t;
+        }
+    }
+
+    /** Only tests that actually run get an outcome; it is recorded when the test (and its dynamic tests) finished. */
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        String fingerprint = context.getStore(NAMESPACE).get("fingerprint", String.class);
+        if (fingerprint != null) context.getStore(NAMESPACE).put(Outcome.class, new Outcome(context, fingerprint));
+    }
+
+    private static boolean cacheable(ExtensionContext context) {
+        return context.getTestMethod().isPresent()
+                && !context.getTags().contains("benchmark")
+                && !context.getTags().contains(RANDOMIZED)
+                && flag(context, CACHE_ENABLED, true);
+    }
+
+    private static boolean flag(ExtensionContext context, String name, boolean defaultValue) {
+        return context.getConfigurationParameter(name).or(() -> Optional.ofNullable(System.getProperty(name)))
+                .map(Boolean::parseBoolean).orElse(defaultValue);
+    }
+
+    /** One results file per run, loaded on first use and saved when the run ends. */
+    private static Results results(ExtensionContext context) {
+        Path dir = Path.of(context.getConfigurationParameter(CACHE_DIR).orElse(System.getProperty(CACHE_DIR, ".test-cache")));
+        return context.getRoot().getStore(NAMESPACE)
+                .getOrComputeIfAbsent(Results.class, k -> new Results(dir.resolve(RESULTS_FILE)), Results.class);
+    }
+
+    static String fingerprint(ExtensionContext context) {
+        Class<?> testClass = context.getRequiredTestClass();
+        while (testClass.getEnclosingClass() != null) testClass = testClass.getEnclosingClass();
+        MessageDigest digest = sha256();
+        update(digest, sharedFingerprint());
+        update(digest, hashClassFamily(testClass));
+        Map<String, String> parameters = new TreeMap<>();
+        System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith("frugal.") && !name.startsWith("frugal.cache."))
+                .forEach(name -> parameters.put(name, System.getProperty(name)));
+        for (String name : PARAMETERS) context.getConfigurationParameter(name).ifPresent(value -> parameters.put(name, value));
+        parameters.forEach((name, value) -> update(digest, name + "=" + value));
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /** Assets, support classes and browser: the same for every test, computed once per JVM. */
+    static String sharedFingerprint() {
+        if (sharedFingerprint == null) {
+            synchronized (ResultCacheExtension.class) {
+                if (sharedFingerprint == null) {
+                    MessageDigest digest = sha256();
+                    for (String asset : ASSETS) hashResource(digest, asset);
+                    Path packageDir = classpathDir(ResultCacheExtension.class.getPackageName().replace('.', '/'));
+                    for (String top : topLevelClasses(packageDir)) {
+                        if (!isTestClass(top)) update(digest, hashClassFamily(packageDir, top));
+                    }
+                    update(digest, "chrome " + DriverPool.browserVersion());
+                    update(digest, "selenium " + new BuildInfo().getReleaseLabel());
+                    update(digest, "java " + Runtime.version().feature());
+                    sharedFingerprint = HexFormat.of().formatHex(digest.digest());
+                }
+            }
+        }
+        return sharedFingerprint;
+    }
+
+    private static boolean isTestClass(String simpleName) {
+        return simpleName.endsWith("Test") || simpleName.endsWith("Benchmark");
+    }
+
+    private static String hashClassFamily(Class<?> topLevel) {
+        return CLASS_HASHES.computeIfAbsent(topLevel.getName(), name ->
+                hashClassFamily(classpathDir(topLevel.getPackageName().replace('.', '/')), topLevel.getSimpleName()));
+    }
+
+    /** Hash of {@code Name.class} and all its nested {@code Name$*.class} files. */
+    private static String hashClassFamily(Path packageDir, String simpleName) {
+        MessageDigest digest = sha256();
+        try (Stream<Path> files = Files.list(packageDir)) {
+            for (Path file : files.filter(f -> {
+                String n = f.getFileName().toString();
+                return n.equals(simpleName + ".class") || n.startsWith(simpleName + "$") && n.endsWith(".class");
+            }).sorted().toList()) {
+                update(digest, file.getFileName().toString());
+                digest.update(Files.readAllBytes(file));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static List<String> topLevelClasses(Path packageDir) {
+        try (Stream<Path> files = Files.list(packageDir)) {
+            return files.map(f -> f.getFileName().toString())
+                    .filter(n -> n.endsWith(".class") && !n.contains("$"))
+                    .map(n -> n.substring(0, n.length() - ".class".length()))
+                    .sorted().toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Hashes a classpath file, or every file below a classpath directory (sorted by path). */
+    private static void hashResource(MessageDigest digest, String name) {
+        URL url = ResultCacheExtension.class.getClassLoader().getResource(name);
+        update(digest, name);
+        if (url == null) return;
+        try {
+            Path path = Path.of(url.toURI());
+            List<Path> files = new ArrayList<>();
+            if (Files.isDirectory(path)) {
+                try (Stream<Path> walk = Files.walk(path)) {
+                    walk.filter(Files::isRegularFile).sorted().forEach(files::add);
+                }
+            } else {
+                files.add(path);
+            }
+            for (Path file : files) {
+                update(digest, path.relativize(file).toString().replace('\\', '/'));
+                digest.update(Files.readAllBytes(file));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            // not a plain file (e.g. inside a jar): hash the content only
+            try (InputStream in = url.openStream()) {
+                digest.update(in.readAllBytes());
+            } catch (IOException io) {
+                throw new UncheckedIOException(io);
+            }
+        }
+    }
+
+    private static Path classpathDir(String resourceDir) {
+        URL url = ResultCacheExtension.class.getClassLoader().getResource(resourceDir);
+        if (url == null || !"file".equals(url.getProtocol())) {
+            throw new IllegalStateException("Test classes are not in a directory: " + url);
+        }
+        try {
+            return Path.of(url.toURI());
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void update(MessageDigest digest, String text) {
+        digest.update(text.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Result of one test method, recorded when its store is closed: after the method, its @AfterEach and all of
+     * its dynamic tests (TestWatcher is not called for @TestFactory methods). Failed or aborted tests are removed.
+     */
+    private static final class Outcome implements ExtensionContext.Store.CloseableResource {
+        private final ExtensionContext context;
+        private final String fingerprint;
+        private volatile boolean dynamicTestFailed;
+
+        Outcome(ExtensionContext context, String fingerprint) {
+            this.context = context;
+            this.fingerprint = fingerprint;
+        }
+
+        void dynamicTestFailed() {
+            dynamicTestFailed = true;
+        }
+
+        @Override
+        public void close() {
+            if (context.getExecutionException().isEmpty() && !dynamicTestFailed) {
+                results(context).put(context.getUniqueId(), fingerprint);
+            } else {
+                results(context).remove(context.getUniqueId());
+            }
+        }
+    }
+
+    /**
+     * Test id -> "fingerprint passedAt". Changes are merged into the file on close, one JVM after the other
+     * under a file lock, so parallel JVMs (shards) sharing the directory only overwrite the entries they ran
+     * themselves.
+     */
+    static final class Results implements ExtensionContext.Store.CloseableResource {
+        private final Path file;
+        private final Map<String, String> entries = new ConcurrentHashMap<>();
+        private final Map<String, Optional<String>> changes = new ConcurrentHashMap<>();
+
+        Results(Path file) {
+            this.file = file;
+            entries.putAll(read(file));
+        }
+
+        /** When the test passed with this fingerprint, if it did. */
+        Optional<String> passed(String testId, String fingerprint) {
+            String entry = entries.get(testId);
+            if (entry == null || !entry.startsWith(fingerprint + " ")) return Optional.empty();
+            return Optional.of(entry.substring(fingerprint.length() + 1));
+        }
+
+        void put(String testId, String fingerprint) {
+            String entry = fingerprint + " " + Instant.now();
+            entries.put(testId, entry);
+            changes.put(testId, Optional.of(entry));
+        }
+
+        void remove(String testId) {
+            entries.remove(testId);
+            changes.put(testId, Optional.empty());
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            if (changes.isEmpty()) return;
+            Path dir = file.toAbsolutePath().getParent();
+            Files.createDirectories(dir);
+            try (FileChannel lockChannel = FileChannel.open(dir.resolve(file.getFileName() + ".lock"),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock ignored = lockChannel.lock()) {
+                Map<String, String> merged = new TreeMap<>(read(file));
+                changes.forEach((id, entry) -> {
+                    if (entry.isPresent()) merged.put(id, entry.get());
+                    else merged.remove(id);
+                });
+                changes.clear();
+                Properties properties = new Properties();
+                properties.putAll(merged);
+                Path temp = Files.createTempFile(dir, RESULTS_FILE, ".tmp");
+                try {
+                    try (OutputStream out = Files.newOutputStream(temp)) {
+                        properties.store(out, "Passed browser tests by fingerprint; delete this directory to rerun everything");
+                    }
+                    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } finally {
+                    Files.deleteIfExists(temp);
+                }
+            }
+        }
+
+        private static Map<String, String> read(Path file) {
+            Map<String, String> entries = new TreeMap<>();
+            if (!Files.isRegularFile(file)) return entries;
+            Properties properties = new Properties();
+            try (InputStream in = Files.newInputStream(file)) {
+                properties.load(in);
+            } catch (IOException e) {
+                System.err.println("Ignoring unreadable test cache " + file + ": " + e.getMessage());
+                return entries;
+            }
+            properties.stringPropertyNames().forEach(name -> entries.put(name, properties.getProperty(name)));
+            return entries;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.frugaltests;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.parallel.Isolated;
+import org.junit.platform.launcher.Launcher;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherFactory;
+import org.junit.platform.launcher.listeners.SummaryGeneratingListener;
+import org.junit.platform.launcher.listeners.TestExecutionSummary;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+
+/**
+ * Result cache: passing tests are skipped on the next run, failures and changed parameters rerun, force runs all.
+ * The sample classes are run through the JUnit launcher with their own cache directory. Isolated: a
+ * frugal.* system property set here would change the fingerprint of tests running at the same time.
+ */
+@Isolated
+public class ResultCacheExtensionTest {
+
+    private static final Map<String, AtomicInteger> RUNS = new ConcurrentHashMap<>();
+    private static volatile boolean failScenario;
+
+    @ExtendWith(ResultCacheExtension.class)
+    static class Sample {
+        @Test
+        void passes() {
+            RUNS.computeIfAbsent("passes", k -> new AtomicInteger()).incrementAndGet();
+        }
+
+        @Test
+        void fails() {
+            RUNS.computeIfAbsent("fails", k -> new AtomicInteger()).incrementAndGet();
+            Assertions.fail("always fails");
+        }
+
+        @TestFactory
+        Stream<DynamicTest> scenarios() {
+            RUNS.computeIfAbsent("scenarios", k -> new AtomicInteger()).incrementAndGet();
+            return Stream.of("a", "b").map(name -> DynamicTest.dynamicTest(name,
+                    () -> Assertions.assertFalse(failScenario && name.equals("b"), "scenario b fails")));
+        }
+    }
+
+    @ExtendWith(ResultCacheExtension.class)
+    @Tag(ResultCacheExtension.RANDOMIZED)
+    static class RandomizedSample {
+        @Test
+        void fuzz() {
+            RUNS.computeIfAbsent("fuzz", k -> new AtomicInteger()).incrementAndGet();
+        }
+    }
+
+    @BeforeEach
+    public void reset() {
+        RUNS.clear();
+        failScenario = false;
+    }
+
+    @Test
+    @DisplayName("A passing test is skipped while unchanged; failing tests run again; force runs everything")
+    public void testSkipsPassedTests(@TempDir Path cache) throws Exception {
+        TestExecutionSummary first = run(cache, Map.of());
+        Assertions.assertEquals(3, first.getTestsSucceededCount(), "passes and both scenarios");
+        Assertions.assertEquals(1, first.getTestsFailedCount());
+        Assertions.assertTrue(Files.readString(cache.resolve(ResultCacheExtension.RESULTS_FILE)).contains("passes()"));
+
+        TestExecutionSummary second = run(cache, Map.of());
+        Assertions.assertEquals(0, second.getTestsSucceededCount(), "passes and scenarios are cached");
+        Assertions.assertEquals(1, second.getTestsFailedCount());
+        Assertions.assertEquals(Map.of("passes", 1, "fails", 2, "scenarios", 1), counts());
+
+        run(cache, Map.of(ResultCacheExtension.CACHE_FORCE, "true"));
+        Assertions.assertEquals(Map.of("passes", 2, "fails", 3, "scenarios", 2), counts());
+    }
+
+    @Test
+    @DisplayName("A failing dynamic test keeps its factory out of the cache")
+    public void testDynamicFailure(@TempDir Path cache) throws Exception {
+        failScenario = true;
+        run(cache, Map.of());
+        run(cache, Map.of());
+        Assertions.assertEquals(2, RUNS.get("scenarios").get());
+        Assertions.assertEquals(1, RUNS.get("passes").get());
+
+        failScenario = false;
+        run(cache, Map.of());
+        run(cache, Map.of());
+        Assertions.assertEquals(3, RUNS.get("scenarios").get(), "cached once it passed");
+    }
+
+    @Test
+    @DisplayName("Other frugal.* properties or configuration parameters, or a disabled cache, run the test again")
+    public void testFingerprintInputs(@TempDir Path cache) throws Exception {
+        run(cache, Map.of());
+        System.setProperty("frugal.sample.parameter", "42");
+        try {
+            run(cache, Map.of());
+        } finally {
+            System.clearProperty("frugal.sample.parameter");
+        }
+        Assertions.assertEquals(2, RUNS.get("passes").get(), "rerun for the new parameter value");
+        run(cache, Map.of());
+        Assertions.assertEquals(3, RUNS.get("passes").get(), "one fingerprint per test: back to the old value reruns too");
+        run(cache, Map.of());
+        Assertions.assertEquals(3, RUNS.get("passes").get());
+
+        run(cache, Map.of(DriverPoolExtension.POOL_ENABLED, "false"));
+        Assertions.assertEquals(4, RUNS.get("passes").get(), "rerun for a configuration parameter");
+
+        run(cache, Map.of(ResultCacheExtension.CACHE_ENABLED, "false"));
+        Assertions.assertEquals(5, RUNS.get("passes").get());
+    }
+
+    @Test
+    @DisplayName("Randomized tests run every time")
+    public void testRandomizedNotCached(@TempDir Path cache) throws Exception {
+        run(RandomizedSample.class, cache, Map.of());
+        run(RandomizedSample.class, cache, Map.of());
+        Assertions.assertEquals(2, RUNS.get("fuzz").get());
+        Assertions.assertFalse(Files.exists(cache.resolve(ResultCacheExtension.RESULTS_FILE)), "nothing recorded");
+    }
+
+    private static TestExecutionSummary run(Path cache, Map<String, String> parameters) {
+        return run(Sample.class, cache, parameters);
+    }
+
+    private static TestExecutionSummary run(Class<?> testClass, Path cache, Map<String, String> parameters) {
+        Launcher launcher = LauncherFactory.create();
+        LauncherDiscoveryRequest request = LauncherDiscoveryRequestBuilder.request()
+                .selectors(selectClass(testClass))
+                .configurationParameter(ResultCacheExtension.CACHE_DIR, cache.toString())
+                .configurationParameters(parameters)
+                .build();
+        SummaryGeneratingListener listener = new SummaryGeneratingListener();
+        launcher.execute(request, listener);
+        return listener.getSummary();
+    }
+
+    private static Map<String, Integer> counts() {
+        Map<String, Integer> counts = new ConcurrentHashMap<>();
+        RUNS.forEach((name, n) -> counts.put(name, n.get()));
+        return counts;
+    }
+}
@@ -0,0 +1,147 @@
+package com.frugaltests;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.DynamicContainer.dynamicContainer;
+import static org.junit.jupiter.api.DynamicTest.dynamicTest;
+
+/**
+ * Data-driven matrix: every country/state/city combination from the page's own data, plus phone-format
+ * variants per country. All cases run in ONE pooled session and ONE page load: the rest of the form is
+ * filled once, and each case only resets the dependent selects. Cases are executed in batches (one
+ * executeAsyncScript per country, waiting in the page for lazily loaded options), so the matrix scales
+ * with the data, not with browser startups.
+ */
+@RegistrationFlow
+public class ScenarioMatrixTest {
+
+    /** Phone variants with the expected validity once a country is selected (+code, optional separator, 6-14 digits). */
+    private static final Map<String, Boolean> PHONE_VARIANTS = new LinkedHashMap<>();
+    static {
+        PHONE_VARIANTS.put("+91 9876543210", true);
+        PHONE_VARIANTS.put("+1-4155550100", true);
+        PHONE_VARIANTS.put("+449876543210", true);
+        PHONE_VARIANTS.put("+8613800138000", true);
+        PHONE_VARIANTS.put("9876543210", false);
+        PHONE_VARIANTS.put("+91 98765", false);
+        PHONE_VARIANTS.put("+12345 9876543", false);
+        PHONE_VARIANTS.put("+91 98765abc10", false);
+    }
+
+    private static final String VALID_PHONE = "+91 9876543210";
+
+    private static final String BATCH_SCRIPT = """
+            const cases = arguments[0];
+            const done = arguments[arguments.length - 1];
+            const byId = id => document.getElementById(id);
+            const fire = (el, type) => el.dispatchEvent(new Event(type, { bubbles: true }));
+            const shown = id => { const e = byId(id); return !!e && e.style.display !== 'none' && !!(e.textContent || '').trim(); };
+            const country = byId('country'), state = byId('state'), city = byId('city'), phone = byId('phone');
+            (async () => {
+              const results = [];
+              for (const c of cases) {
+                // only the selects below the first changed level are reset (by the page's own change handlers)
+                await locationsIdle();
+                if (country.value !== c.country) { country.value = c.country; fire(country, 'change'); await locationsIdle(); }
+                if (state.value !== c.state) { state.value = c.state; fire(state, 'change'); await locationsIdle(); }
+                if (city.value !== c.city) { city.value = c.city; fire(city, 'change'); }
+                phone.value = c.phone; fire(phone, 'input');
+                results.push({
+                  country: country.value, state: state.value, city: city.value,
+                  stateOptions: state.options.length - 1, cityOptions: city.options.length - 1,
+                  errors: ['countryError', 'stateError', 'cityError', 'phoneError'].filter(shown),
+                  submitDisabled: byId('submitBtn').disabled
+                });
+              }
+              return results;
+            })().then(done, e => done(String(e)));
+            """;
+
+    private record Scenario(String country, String state, String city, String phone, boolean phoneValid) {
+        Map<String, Object> toArgument() {
+            return Map.of("country", country, "state", state, "city", city, "phone", phone);
+        }
+    }
+
+    @TestFactory
+    @Execution(ExecutionMode.SAME_THREAD) // cases share one session and page, even in -Pparallel runs
+    @DisplayName("Scenario matrix: every country/state/city combination and phone format")
+    public Stream<DynamicNode> everyLocationAndPhoneFormat(WebDriver driver, @PageUrl String page) {
+        driver.get(page);
+        LocationHierarchy locations = LocationHierarchy.extract(driver);
+        System.out.println("Scenario matrix: " + locations.countries().size() + " countries, "
+                + locations.stateCount() + " states, " + locations.cityCount() + " cities");
+
+        // everything except location and phone is filled once for the whole matrix
+        new RegistrationForm(driver).fill(RegistrationData.valid().withLocation(null, null, null).withPhone(null));
+
+        BatchRunner batches = new BatchRunner(driver);
+        return locations.countries().stream().map(country -> {
+            List<Scenario> cases = new ArrayList<>();
+            for (String state : locations.states(country)) {
+                for (String city : locations.cities(country, state)) {
+                    cases.add(new Scenario(country, state, city, VALID_PHONE, true));
+                }
+            }
+            String firstState = locations.states(country).iterator().next();
+            String firstCity = locations.cities(country, firstState).get(0);
+            PHONE_VARIANTS.forEach((phone, valid) -> cases.add(new Scenario(country, firstState, firstCity, phone, valid)));
+
+            List<DynamicNode> tests = new ArrayList<>();
+            for (int i = 0; i < cases.size(); i++) {
+                Scenario scenario = cases.get(i);
+                int index = i;
+                String name = scenario.state() + " / " + scenario.city() + " / phone '" + scenario.phone() + "'";
+                tests.add(dynamicTest(name, () -> verify(locations, scenario, batches.result(country, cases, index))));
+            }
+            return dynamicContainer(country, tests);
+        });
+    }
+
+    private static void verify(LocationHierarchy locations, Scenario scenario, Map<String, Object> result) {
+        Assertions.assertEquals(scenario.country(), result.get("country"), "selected country");
+        Assertions.assertEquals(scenario.state(), result.get("state"), "selected state");
+        Assertions.assertEquals(scenario.city(), result.get("city"), "selected city");
+        Assertions.assertEquals((long) locations.states(scenario.country()).size(), result.get("stateOptions"),
+                "state options for " + scenario.country());
+        Assertions.assertEquals((long) locations.cities(scenario.country(), scenario.state()).size(), result.get("cityOptions"),
+                "city options for " + scenario.state());
+
+        List<?> errors = (List<?>) result.get("errors");
+        List<String> expectedErrors = scenario.phoneValid() ? List.of() : List.of("phoneError");
+        Assertions.assertEquals(expectedErrors, errors, "validation errors shown");
+        Assertions.assertEquals(!scenario.phoneValid(), result.get("submitDisabled"), "submit disabled");
+    }
+
+    /** Runs all cases of a country in one executeScript call the first time one of them is verified. */
+    private static final class BatchRunner {
+        private final WebDriver driver;
+        private final Map<String, List<Map<String, Object>>> results = new HashMap<>();
+
+        BatchRunner(WebDriver driver) {
+            this.driver = driver;
+        }
+
+        @SuppressWarnings("unchecked")
+        synchronized Map<String, Object> result(String country, List<Scenario> cases, int index) {
+            return results.computeIfAbsent(country, c -> {
+                List<Map<String, Object>> args = cases.stream().map(Scenario::toArgument).toList();
+                Object results = ((JavascriptExecutor) driver).executeAsyncScript(BATCH_SCRIPT, args);
+                if (!(results instanceof List)) throw new JavascriptException("Batch for " + c + " failed: " + results);
+                return (List<Map<String, Object>>) results;
+            }).get(index);
+        }
+    }
+}
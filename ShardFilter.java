@@ -0,0 +1,158 @@
+package com.frugaltests;
+
+import org.junit.platform.engine.FilterResult;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.PostDiscoveryFilter;
+import org.junit.platform.launcher.TestPlan;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+
+/**
+ * Keeps only the test classes of one shard when run with -Dfrugal.shard.count=N -Dfrugal.shard.index=i
+ * (0-based), e.g. one surefire run per CI job or one JVM per shard from {@link ShardRunner}.
+ * - Browser classes ({@link RegistrationFlow}) are spread with {@link ShardPlan#lpt} over the recorded durations
+ *   of their tests ({@link DurationRecorder}); tests without history count with the average recorded time.
+ * - All other classes stay on shard 0: they are fast and some of them launch sample classes of their own.
+ * Every shard discovers the same classes and reads the same durations (-Dfrugal.shard.durations, default the
+ * recorder's file), so the shards agree on the plan without talking to each other.
+ * Shards are whole classes: @TestFactory scenarios only exist once the factory runs, so they are never split.
+ * Registered for every launcher through META-INF/services; without a shard count it includes everything.
+ * A filter constructed with its own count, index and durations ignores the system properties, e.g. to plan
+ * sample classes in a test without sharding other launchers of the JVM.
+ */
+public class ShardFilter implements PostDiscoveryFilter {
+
+    public static final String SHARD_INDEX = "frugal.shard.index";
+    public static final String SHARD_COUNT = "frugal.shard.count";
+    public static final String SHARD_DURATIONS = "frugal.shard.durations";
+
+    /** Assumed time of a browser test when nothing has been recorded yet. */
+    private static final double DEFAULT_TEST_MS = 1000;
+
+    /** One plan per discovery: every launcher run gets its own engine root. */
+    private final Map<TestDescriptor, ShardPlan> plans = Collections.synchronizedMap(new WeakHashMap<>());
+    /** Shard settings, or null to read them from the system properties on each discovery. */
+    private final Integer count;
+    private final Integer index;
+    private final Weights weights;
+
+    /** The service-loaded filter: sharded by -Dfrugal.shard.count/index/durations. */
+    public ShardFilter() {
+        this.count = null;
+        this.index = null;
+        this.weights = null;
+    }
+
+    /** Shard {@code index} (0-based) of {@code count}, planned over the given durations. */
+    public ShardFilter(int count, int index, Weights weights) {
+        checkIndex(count, index);
+        this.count = count;
+        this.index = index;
+        this.weights = weights;
+    }
+
+    /**
+     * Expected time of tests as the shards are planned: the recorded duration, or the average recorded
+     * duration for tests without history.
+     */
+    public record Weights(Map<String, Double> durations, double fallbackMs) {
+
+        /** The durations given by -Dfrugal.shard.durations (default the recorder's file). */
+        public static Weights fromSystemProperties() {
+            return load(Path.of(System.getProperty(SHARD_DURATIONS, DurationRecorder.file().toString())));
+        }
+
+        public static Weights load(Path file) {
+            Map<String, Double> durations;
+            try {
+                durations = DurationRecorder.load(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read the test durations for sharding", e);
+            }
+            return new Weights(durations, durations.values().stream().mapToDouble(Double::doubleValue).average().orElse(DEFAULT_TEST_MS));
+        }
+
+        public double of(String uniqueId) {
+            return durations.getOrDefault(uniqueId, fallbackMs);
+        }
+
+        /** Expected milliseconds of the test methods in a discovered (and shard-filtered) test plan. */
+        public double of(TestPlan testPlan) {
+            return testPlan.getRoots().stream().flatMap(root -> testPlan.getDescendants(root).stream())
+                    .filter(id -> id.getSource().orElse(null) instanceof MethodSource)
+                    .mapToDouble(id -> of(id.getUniqueId()))
+                    .sum();
+        }
+    }
+
+    @Override
+    public FilterResult apply(TestDescriptor descriptor) {
+        int count = this.count != null ? this.count : Integer.getInteger(SHARD_COUNT, 1);
+        if (count <= 1) return FilterResult.included("sharding is off");
+        int index = this.index != null ? this.index : Integer.getInteger(SHARD_INDEX, 0);
+        checkIndex(count, index);
+        Optional<ClassSource> unit = unitOf(descriptor);
+        if (unit.isEmpty()) return FilterResult.included("not a test class");
+
+        TestDescriptor root = root(descriptor);
+        ShardPlan plan = plans.computeIfAbsent(root, r -> plan(r, count, weights != null ? weights : Weights.fromSystemProperties()));
+        int shard = plan.shardOf(unit.get().getClassName());
+        return shard == index
+                ? FilterResult.included("shard " + index + " of " + count)
+                : FilterResult.excluded("runs on shard " + shard + " of " + count);
+    }
+
+    private static void checkIndex(int count, int index) {
+        if (count > 1 && (index < 0 || index >= count)) {
+            throw new IllegalArgumentException(SHARD_INDEX + " must be between 0 and " + (count - 1) + ": " + index);
+        }
+    }
+
+    /** The top-level class a descriptor belongs to: the ancestor-or-self directly below the engine. */
+    private static Optional<ClassSource> unitOf(TestDescriptor descriptor) {
+        TestDescriptor current = descriptor;
+        while (current.getParent().isPresent() && current.getParent().get().getParent().isPresent()) {
+            current = current.getParent().get();
+        }
+        if (current.getParent().isEmpty()) return Optional.empty();
+        return current.getSource().filter(ClassSource.class::isInstance).map(ClassSource.class::cast);
+    }
+
+    private static TestDescriptor root(TestDescriptor descriptor) {
+        TestDescriptor current = descriptor;
+        while (current.getParent().isPresent()) current = current.getParent().get();
+        return current;
+    }
+
+    private static ShardPlan plan(TestDescriptor root, int count, Weights durations) {
+        Map<String, Double> weights = new HashMap<>();
+        Map<String, Integer> pinned = new HashMap<>();
+        for (TestDescriptor child : root.getChildren()) {
+            if (!(child.getSource().orElse(null) instanceof ClassSource source)) continue;
+            double weight = child.getDescendants().stream()
+                    .filter(d -> d.getSource().orElse(null) instanceof MethodSource)
+                    .mapToDouble(d -> durations.of(d.getUniqueId().toString()))
+                    .sum();
+            weights.put(source.getClassName(), weight);
+            if (!isBrowserTest(source)) pinned.put(source.getClassName(), 0);
+        }
+        return ShardPlan.lpt(weights, pinned, count);
+    }
+
+    private static boolean isBrowserTest(ClassSource source) {
+        try {
+            return source.getJavaClass().isAnnotationPresent(RegistrationFlow.class);
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.frugaltests;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Assignment of test classes to shards, longest-processing-time first: classes are placed in descending
+ * order of their expected duration, each on the shard with the least work so far (ties go to the lower shard).
+ * Pinned classes are placed on their shard before the others, so their time counts towards it.
+ * The result only depends on the weights, so every JVM that sees the same classes and durations computes the same plan.
+ */
+public final class ShardPlan {
+
+    private final Map<String, Integer> shardOf;
+    private final double[] loads;
+
+    private ShardPlan(Map<String, Integer> shardOf, double[] loads) {
+        this.shardOf = shardOf;
+        this.loads = loads;
+    }
+
+    public static ShardPlan lpt(Map<String, Double> weights, int shards) {
+        return lpt(weights, Map.of(), shards);
+    }
+
+    /** Weights in milliseconds per class; pinned maps classes to the shard they must run on. */
+    public static ShardPlan lpt(Map<String, Double> weights, Map<String, Integer> pinned, int shards) {
+        if (shards < 1) throw new IllegalArgumentException("Shard count must be at least 1: " + shards);
+        Map<String, Integer> shardOf = new HashMap<>();
+        double[] loads = new double[shards];
+        pinned.forEach((unit, shard) -> {
+            if (shard < 0 || shard >= shards) throw new IllegalArgumentException(unit + " pinned to missing shard " + shard);
+            shardOf.put(unit, shard);
+            loads[shard] += weights.getOrDefault(unit, 0.0);
+        });
+
+        List<Map.Entry<String, Double>> units = new ArrayList<>();
+        weights.entrySet().stream().filter(e -> !pinned.containsKey(e.getKey())).forEach(units::add);
+        units.sort(Map.Entry.<String, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+        for (Map.Entry<String, Double> unit : units) {
+            int lightest = 0;
+            for (int i = 1; i < shards; i++) {
+                if (loads[i] < loads[lightest]) lightest = i;
+            }
+            shardOf.put(unit.getKey(), lightest);
+            loads[lightest] += unit.getValue();
+        }
+        return new ShardPlan(shardOf, loads);
+    }
+
+    public int shards() {
+        return loads.length;
+    }
+
+    /** The shard of a class, or -1 if it was not part of the plan. */
+    public int shardOf(String unit) {
+        return shardOf.getOrDefault(unit, -1);
+    }
+
+    public List<String> units(int shard) {
+        return shardOf.entrySet().stream().filter(e -> e.getValue() == shard).map(Map.Entry::getKey)
+                .sorted(Comparator.naturalOrder()).toList();
+    }
+
+    /** Expected milliseconds of work on the shard. */
+    public double load(int shard) {
+        return loads[shard];
+    }
+
+    /** Expected duration of the slowest shard. */
+    public double makespan() {
+        double max = 0;
+        for (double load : loads) max = Math.max(max, load);
+        return max;
+    }
+
+    public String format() {
+        Map<Integer, List<String>> byShard = new TreeMap<>();
+        for (int i = 0; i < loads.length; i++) byShard.put(i, units(i));
+        StringBuilder out = new StringBuilder();
+        byShard.forEach((shard, units) -> out.append(String.format(Locale.ROOT, "shard %d: %8.1f s expected, %d classes %s%n",
+                shard, loads[shard] / 1000, units.size(), units)));
+        return out.toString();
+    }
+}
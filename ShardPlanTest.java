@@ -0,0 +1,137 @@
+package com.frugaltests;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.launcher.Launcher;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+import org.junit.platform.launcher.core.LauncherConfig;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherFactory;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+
+/**
+ * Shard planning: longest-processing-time assignment, the discovery filter on sample classes and the
+ * averaged duration history.
+ */
+public class ShardPlanTest {
+
+    @RegistrationFlow
+    static class Heavy {
+        @Test
+        void first() {
+        }
+
+        @Test
+        void second() {
+        }
+    }
+
+    @RegistrationFlow
+    static class Medium {
+        @Test
+        void only() {
+        }
+    }
+
+    @RegistrationFlow
+    static class Light {
+        @Test
+        void first() {
+        }
+
+        @Test
+        void second() {
+        }
+    }
+
+    static class Unit {
+        @Test
+        void fast() {
+        }
+    }
+
+    @Test
+    @DisplayName("Longest classes are placed first, each on the least loaded shard")
+    public void testLongestProcessingTimeFirst() {
+        Map<String, Double> weights = Map.of("a", 10.0, "b", 9.0, "c", 7.0, "d", 6.0, "e", 5.0, "f", 4.0);
+        ShardPlan plan = ShardPlan.lpt(weights, 2);
+        Assertions.assertEquals(List.of("a", "d", "e"), plan.units(0));
+        Assertions.assertEquals(List.of("b", "c", "f"), plan.units(1));
+        Assertions.assertEquals(21.0, plan.makespan(), "round robin by name would give 22");
+
+        ShardPlan pinned = ShardPlan.lpt(weights, Map.of("f", 1), 3);
+        Assertions.assertEquals(1, pinned.shardOf("f"));
+        Assertions.assertEquals(41.0, pinned.load(0) + pinned.load(1) + pinned.load(2));
+        Assertions.assertEquals(-1, pinned.shardOf("g"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ShardPlan.lpt(weights, Map.of("a", 3), 3));
+    }
+
+    @Test
+    @DisplayName("Every shard discovers its part of the classes; other classes stay on shard 0")
+    public void testFilterSplitsDiscovery(@TempDir Path dir) throws Exception {
+        Path durations = dir.resolve("durations.properties");
+        Map<String, Double> times = new HashMap<>();
+        for (TestIdentifier test : tests(discover(null, 0))) {
+            String name = test.getUniqueId();
+            times.put(name, name.contains("Heavy") ? 5000.0 : name.contains("Medium") ? 4000.0 : name.contains("Unit") ? 100.0 : 1000.0);
+        }
+        times.keySet().removeIf(id -> id.contains("Light") && id.contains("second"));
+        DurationRecorder.merge(durations, times);
+
+        TestPlan plan0 = discover(durations, 0);
+        TestPlan plan1 = discover(durations, 1);
+        Assertions.assertEquals(Set.of("Heavy"), classes(plan1), "10 s of Heavy against Medium, Light and Unit");
+        Assertions.assertEquals(Set.of("Medium", "Light", "Unit"), classes(plan0));
+        ShardFilter.Weights weights = ShardFilter.Weights.load(durations);
+        Assertions.assertEquals(10_000, weights.of(plan1));
+        // Light's second test has no history and counts with the average of the recorded ones (15100 ms / 5)
+        Assertions.assertEquals(100 + 4000 + 1000 + 3020, weights.of(plan0), 0.1);
+        Assertions.assertEquals(Set.of("Heavy", "Medium", "Light", "Unit"), classes(discover(null, 0)), "sharding off");
+    }
+
+    @Test
+    @DisplayName("Recorded durations are averaged with the history")
+    public void testDurationHistory(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("cache").resolve("durations.properties");
+        DurationRecorder.merge(file, Map.of("[engine:junit-jupiter]/[class:A]/[method:a()]", 1000.0));
+        DurationRecorder.merge(file, Map.of("[engine:junit-jupiter]/[class:A]/[method:a()]", 3000.0, "b", 10.0));
+        Assertions.assertEquals(Map.of("[engine:junit-jupiter]/[class:A]/[method:a()]", 2000.0, "b", 10.0),
+                DurationRecorder.load(file));
+        Assertions.assertEquals(Map.of(), DurationRecorder.load(dir.resolve("missing.properties")));
+    }
+
+    /**
+     * Discovers the sample classes as shard {@code index} of 2, or unsharded when durations is null.
+     * The filter is passed explicitly and the service-loaded one is left out, so neither the shard properties
+     * of this JVM (set when the suite itself runs sharded) nor other launchers running meanwhile are involved.
+     */
+    private static TestPlan discover(Path durations, int index) {
+        LauncherDiscoveryRequestBuilder request = LauncherDiscoveryRequestBuilder.request()
+                .selectors(selectClass(Heavy.class), selectClass(Medium.class), selectClass(Light.class), selectClass(Unit.class));
+        if (durations != null) request.filters(new ShardFilter(2, index, ShardFilter.Weights.load(durations)));
+        Launcher launcher = LauncherFactory.create(LauncherConfig.builder()
+                .enablePostDiscoveryFilterAutoRegistration(false)
+                .build());
+        return launcher.discover(request.build());
+    }
+
+    private static List<TestIdentifier> tests(TestPlan plan) {
+        return plan.getRoots().stream().flatMap(root -> plan.getDescendants(root).stream()).filter(TestIdentifier::isTest).toList();
+    }
+
+    private static Set<String> classes(TestPlan plan) {
+        return plan.getRoots().stream().flatMap(root -> plan.getChildren(root).stream())
+                .map(id -> ((ClassSource) id.getSource().orElseThrow()).getJavaClass().getSimpleName())
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,182 @@
+package com.frugaltests;
+
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Results of the shards of one run, merged into a single report: every shard writes
+ * {@code <dir>/shard-<i>/results.json}; {@link #merge(Path)} combines them into {@code <dir>/report.txt},
+ * {@code report.json} (per-shard planned and actual time, all tests) and {@code TEST-shards.xml}
+ * (JUnit XML, one testsuite per class). Timings and artifacts need no merging: each class runs on one shard
+ * and writes its own files under target/timings and target/artifacts.
+ *
+ * Also usable on its own, e.g. after collecting the shard directories of several CI jobs:
+ * java -cp ... com.frugaltests.ShardReportMerger target/shards
+ */
+public final class ShardReportMerger {
+
+    static final String RESULTS_FILE = "results.json";
+
+    /** One test; status is SUCCESSFUL, FAILED, ABORTED or SKIPPED. */
+    public record TestResult(String testClass, String name, String status, double durationMs, String message) {
+        Map<String, Object> toJson() {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("testClass", testClass);
+            json.put("name", name);
+            json.put("status", status);
+            json.put("durationMs", durationMs);
+            if (message != null) json.put("message", message);
+            return json;
+        }
+
+        @SuppressWarnings("unchecked")
+        static TestResult fromJson(Object json) {
+            Map<String, Object> map = (Map<String, Object>) json;
+            return new TestResult((String) map.get("testClass"), (String) map.get("name"), (String) map.get("status"),
+                    ((Number) map.get("durationMs")).doubleValue(), (String) map.get("message"));
+        }
+    }
+
+    /** What one shard ran; plannedMs is the expected time from the {@link ShardPlan}, wallMs the actual time. */
+    public record ShardResult(int index, int count, double plannedMs, double wallMs, List<TestResult> tests) {
+        long count(String status) {
+            return tests.stream().filter(t -> t.status().equals(status)).count();
+        }
+
+        Map<String, Object> toJson() {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("index", index);
+            json.put("count", count);
+            json.put("plannedMs", plannedMs);
+            json.put("wallMs", wallMs);
+            json.put("tests", tests.stream().map(TestResult::toJson).toList());
+            return json;
+        }
+
+        @SuppressWarnings("unchecked")
+        static ShardResult fromJson(Map<String, Object> json) {
+            return new ShardResult(((Number) json.get("index")).intValue(), ((Number) json.get("count")).intValue(),
+                    ((Number) json.get("plannedMs")).doubleValue(), ((Number) json.get("wallMs")).doubleValue(),
+                    ((List<Object>) json.get("tests")).stream().map(TestResult::fromJson).toList());
+        }
+    }
+
+    /** All shards of a run. */
+    public record Report(List<ShardResult> shards) {
+        public long tests() {
+            return shards.stream().mapToLong(s -> s.tests().size()).sum();
+        }
+
+        public long failed() {
+            return shards.stream().mapToLong(s -> s.count("FAILED")).sum();
+        }
+
+        public long skipped() {
+            return shards.stream().mapToLong(s -> s.count("SKIPPED") + s.count("ABORTED")).sum();
+        }
+
+        public String format() {
+            StringBuilder out = new StringBuilder();
+            out.append(String.format(Locale.ROOT, "Sharded run: %d shards, %d tests, %d failed, %d skipped%n",
+                    shards.size(), tests(), failed(), skipped()));
+            out.append(String.format(Locale.ROOT, "%-7s %6s %8s %8s %12s %12s%n",
+                    "shard", "tests", "failed", "skipped", "planned s", "actual s"));
+            for (ShardResult shard : shards) {
+                out.append(String.format(Locale.ROOT, "%-7d %6d %8d %8d %12.1f %12.1f%n", shard.index(), shard.tests().size(),
+                        shard.count("FAILED"), shard.count("SKIPPED") + shard.count("ABORTED"),
+                        shard.plannedMs() / 1000, shard.wallMs() / 1000));
+            }
+            shards.stream().flatMap(s -> s.tests().stream()).filter(t -> t.status().equals("FAILED")).forEach(t ->
+                    out.append("FAILED ").append(t.testClass()).append(" > ").append(t.name())
+                            .append(t.message() == null ? "" : ": " + t.message()).append('\n'));
+            return out.toString();
+        }
+    }
+
+    private ShardReportMerger() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Report report = merge(Path.of(args.length > 0 ? args[0] : "target/shards"));
+        System.out.print(report.format());
+        if (report.failed() > 0) System.exit(1);
+    }
+
+    /** Writes {@code <dir>/shard-<index>/results.json} and returns it. */
+    public static Path write(Path dir, ShardResult shard) throws IOException {
+        Path shardDir = dir.resolve("shard-" + shard.index());
+        Files.createDirectories(shardDir);
+        return Files.writeString(shardDir.resolve(RESULTS_FILE), new Json().toJson(shard.toJson()));
+    }
+
+    /** Reads every shard under the directory and writes the merged report files next to them. */
+    public static Report merge(Path dir) throws IOException {
+        List<ShardResult> shards = new ArrayList<>();
+        Json json = new Json();
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path shardDir : files.filter(Files::isDirectory).toList()) {
+                Path results = shardDir.resolve(RESULTS_FILE);
+                if (Files.exists(results)) shards.add(ShardResult.fromJson(json.toType(Files.readString(results), Json.MAP_TYPE)));
+            }
+        }
+        if (shards.isEmpty()) throw new IOException("No shard results (" + RESULTS_FILE + ") under " + dir);
+        shards.sort(Comparator.comparingInt(ShardResult::index));
+        Report report = new Report(List.copyOf(shards));
+
+        Map<String, Object> merged = new LinkedHashMap<>();
+        merged.put("generatedAt", Instant.now().toString());
+        merged.put("tests", report.tests());
+        merged.put("failed", report.failed());
+        merged.put("skipped", report.skipped());
+        merged.put("shards", shards.stream().map(ShardResult::toJson).toList());
+        Files.writeString(dir.resolve("report.json"), json.toJson(merged));
+        Files.writeString(dir.resolve("report.txt"), report.format());
+        Files.writeString(dir.resolve("TEST-shards.xml"), junitXml(report));
+        return report;
+    }
+
+    private static String junitXml(Report report) {
+        Map<String, List<TestResult>> byClass = new TreeMap<>();
+        report.shards().forEach(s -> s.tests().forEach(t -> byClass.computeIfAbsent(t.testClass(), k -> new ArrayList<>()).add(t)));
+        StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        xml.append(String.format(Locale.ROOT, "<testsuites tests=\"%d\" failures=\"%d\" skipped=\"%d\">%n",
+                report.tests(), report.failed(), report.skipped()));
+        byClass.forEach((testClass, tests) -> {
+            long failures = tests.stream().filter(t -> t.status().equals("FAILED")).count();
+            long skipped = tests.stream().filter(t -> t.status().equals("SKIPPED") || t.status().equals("ABORTED")).count();
+            double seconds = tests.stream().mapToDouble(TestResult::durationMs).sum() / 1000;
+            xml.append(String.format(Locale.ROOT, "  <testsuite name=\"%s\" tests=\"%d\" failures=\"%d\" skipped=\"%d\" time=\"%.3f\">%n",
+                    escape(testClass), tests.size(), failures, skipped, seconds));
+            for (TestResult t : tests) {
+                xml.append(String.format(Locale.ROOT, "    <testcase classname=\"%s\" name=\"%s\" time=\"%.3f\"",
+                        escape(testClass), escape(t.name()), t.durationMs() / 1000));
+                switch (t.status()) {
+                    case "FAILED" -> xml.append(">\n      <failure message=\"").append(escape(String.valueOf(t.message())))
+                            .append("\"/>\n    </testcase>\n");
+                    case "SKIPPED", "ABORTED" -> xml.append(">\n      <skipped message=\"").append(escape(String.valueOf(t.message())))
+                            .append("\"/>\n    </testcase>\n");
+                    default -> xml.append("/>\n");
+                }
+            }
+            xml.append("  </testsuite>\n");
+        });
+        return xml.append("</testsuites>\n").toString();
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;")
+                .replaceAll("[\\x00-\\x08\\x0B\\x0C\\x0E-\\x1F]", "");
+    }
+}
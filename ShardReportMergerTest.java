@@ -0,0 +1,49 @@
+package com.frugaltests;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Merging the results of two shards into one report.
+ */
+public class ShardReportMergerTest {
+
+    @Test
+    @DisplayName("Shard results are merged into one text, JSON and JUnit XML report")
+    public void testMerge(@TempDir Path dir) throws Exception {
+        ShardReportMerger.write(dir, new ShardReportMerger.ShardResult(1, 2, 9000, 9500, List.of(
+                new ShardReportMerger.TestResult("com.frugaltests.FlowCRegistrationTest", "Flow C", "FAILED", 4200, "expected <true> & got <false>"),
+                new ShardReportMerger.TestResult("com.frugaltests.LocationScaleTest", "scale", "SKIPPED", 0, "Chrome is not installed"))));
+        ShardReportMerger.write(dir, new ShardReportMerger.ShardResult(0, 2, 8000, 8700, List.of(
+                new ShardReportMerger.TestResult("com.frugaltests.PositiveRegistrationTest", "valid data", "SUCCESSFUL", 3100, null),
+                new ShardReportMerger.TestResult("com.frugaltests.FlowCRegistrationTest", "Flow C again", "SUCCESSFUL", 1000, null))));
+        Files.createDirectories(dir.resolve("shard-2"));
+
+        ShardReportMerger.Report report = ShardReportMerger.merge(dir);
+        Assertions.assertEquals(List.of(0, 1), report.shards().stream().map(ShardReportMerger.ShardResult::index).toList());
+        Assertions.assertEquals(4, report.tests());
+        Assertions.assertEquals(1, report.failed());
+        Assertions.assertEquals(1, report.skipped());
+
+        String text = Files.readString(dir.resolve("report.txt"));
+        Assertions.assertTrue(text.startsWith("Sharded run: 2 shards, 4 tests, 1 failed, 1 skipped"), text);
+        Assertions.assertTrue(text.contains("FAILED com.frugaltests.FlowCRegistrationTest > Flow C: expected"), text);
+        Assertions.assertTrue(Files.readString(dir.resolve("report.json")).contains("\"plannedMs\""));
+
+        String xml = Files.readString(dir.resolve("TEST-shards.xml"));
+        Assertions.assertTrue(xml.contains("<testsuites tests=\"4\" failures=\"1\" skipped=\"1\">"), xml);
+        Assertions.assertTrue(xml.contains("<testsuite name=\"com.frugaltests.FlowCRegistrationTest\" tests=\"2\" failures=\"1\" skipped=\"0\" time=\"5.200\">"), xml);
+        Assertions.assertTrue(xml.contains("message=\"expected &lt;true&gt; &amp; got &lt;false&gt;\""), xml);
+    }
+
+    @Test
+    @DisplayName("A directory without shard results is an error")
+    public void testNoResults(@TempDir Path dir) {
+        Assertions.assertThrows(IOException.class, () -> ShardReportMerger.merge(dir));
+    }
+}
@@ -0,0 +1,185 @@
+package com.frugaltests;
+
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.Launcher;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.TagFilter;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.platform.engine.discovery.ClassNameFilter.STANDARD_INCLUDE_PATTERN;
+import static org.junit.platform.engine.discovery.ClassNameFilter.excludeClassNamePatterns;
+import static org.junit.platform.engine.discovery.ClassNameFilter.includeClassNamePatterns;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectPackage;
+
+/**
+ * Runs the suite in N JVMs at the same time, one shard each, every JVM with its own browser pool:
+ * mvn -Pshard test [-Dshard.args="--shards 4"]
+ * The shards are planned by {@link ShardFilter} from the recorded test durations (a snapshot taken before the
+ * workers start, so all of them plan alike); their results are merged by {@link ShardReportMerger} into
+ * target/shards/report.txt, report.json and TEST-shards.xml. Worker output goes to target/shards/shard-&lt;i&gt;/output.log.
+ * frugal.* system properties are passed on to the workers.
+ */
+public final class ShardRunner {
+
+    private ShardRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 2 && args[0].equals("--worker")) {
+            System.exit(worker(Path.of(args[1])));
+        }
+        int shards = 4;
+        Path out = Path.of("target/shards");
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--shards" -> shards = Integer.parseInt(value(args, ++i));
+                case "--out" -> out = Path.of(value(args, ++i));
+                default -> throw new IllegalArgumentException("Unknown option " + args[i] + " (expected --shards N, --out DIR)");
+            }
+        }
+        if (shards < 1) throw new IllegalArgumentException("--shards must be at least 1");
+        System.exit(run(shards, out));
+    }
+
+    private static String value(String[] args, int i) {
+        if (i >= args.length) throw new IllegalArgumentException("Missing value for " + args[i - 1]);
+        return args[i];
+    }
+
+    /** Starts the workers, waits for all of them and merges their results; returns the exit code. */
+    static int run(int shards, Path out) throws IOException, InterruptedException {
+        Files.createDirectories(out);
+        Path snapshot = out.resolve("durations.properties");
+        if (Files.exists(DurationRecorder.file())) {
+            Files.copy(DurationRecorder.file(), snapshot, StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.deleteIfExists(snapshot);
+        }
+
+        long start = System.nanoTime();
+        List<Process> workers = new ArrayList<>();
+        for (int i = 0; i < shards; i++) {
+            List<String> command = new ArrayList<>();
+            command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+            command.add("-cp");
+            command.add(System.getProperty("java.class.path"));
+            System.getProperties().stringPropertyNames().stream()
+                    .filter(name -> name.startsWith("frugal.") && !name.startsWith("frugal.shard."))
+                    .sorted()
+                    .forEach(name -> command.add("-D" + name + "=" + System.getProperty(name)));
+            command.add("-D" + ShardFilter.SHARD_INDEX + "=" + i);
+            command.add("-D" + ShardFilter.SHARD_COUNT + "=" + shards);
+            command.add("-D" + ShardFilter.SHARD_DURATIONS + "=" + snapshot.toAbsolutePath());
+            command.add(ShardRunner.class.getName());
+            command.add("--worker");
+            command.add(out.toAbsolutePath().toString());
+
+            Path shardDir = Files.createDirectories(out.resolve("shard-" + i));
+            Files.deleteIfExists(shardDir.resolve(ShardReportMerger.RESULTS_FILE));
+            workers.add(new ProcessBuilder(command).redirectErrorStream(true)
+                    .redirectOutput(shardDir.resolve("output.log").toFile()).start());
+        }
+        System.out.printf("Started %d shards, output in %s/shard-*/output.log%n", shards, out);
+
+        int crashed = 0;
+        for (int i = 0; i < workers.size(); i++) {
+            int exit = workers.get(i).waitFor();
+            boolean reported = Files.exists(out.resolve("shard-" + i).resolve(ShardReportMerger.RESULTS_FILE));
+            System.out.printf("shard %d exited with %d%n", i, exit);
+            if (!reported) {
+                System.err.println("shard " + i + " wrote no results, see " + out.resolve("shard-" + i).resolve("output.log"));
+                crashed++;
+            }
+        }
+        System.out.printf("all shards finished after %.1f s%n", (System.nanoTime() - start) / 1e9);
+        ShardReportMerger.Report report = ShardReportMerger.merge(out);
+        System.out.print(report.format());
+        System.out.println("Merged report: " + out.resolve("report.txt").toAbsolutePath());
+        return crashed > 0 || report.failed() > 0 ? 1 : 0;
+    }
+
+    /** Runs this JVM's shard of the suite (the same classes surefire runs) and writes its results. */
+    private static int worker(Path out) throws IOException {
+        int index = Integer.getInteger(ShardFilter.SHARD_INDEX, 0);
+        int count = Integer.getInteger(ShardFilter.SHARD_COUNT, 1);
+        LauncherDiscoveryRequest request = LauncherDiscoveryRequestBuilder.request()
+                .selectors(selectPackage(ShardRunner.class.getPackageName()))
+                .filters(includeClassNamePatterns(STANDARD_INCLUDE_PATTERN), excludeClassNamePatterns(".*\\$.*"),
+                        TagFilter.excludeTags("benchmark"))
+                .build();
+        Results results = new Results();
+        Launcher launcher = LauncherFactory.create();
+        long start = System.nanoTime();
+        TestPlan testPlan = launcher.discover(request);
+        // the tests of this shard, weighed as ShardFilter weighed them when planning
+        double plannedMs = ShardFilter.Weights.fromSystemProperties().of(testPlan);
+        launcher.execute(testPlan, results);
+        double wallMs = (System.nanoTime() - start) / 1e6;
+
+        ShardReportMerger.ShardResult shard = new ShardReportMerger.ShardResult(index, count, plannedMs, wallMs, List.copyOf(results.tests));
+        ShardReportMerger.write(out, shard);
+        System.out.printf("shard %d of %d: %d tests, %d failed in %.1f s (planned %.1f s)%n", index, count,
+                shard.tests().size(), shard.count("FAILED"), wallMs / 1000, plannedMs / 1000);
+        return shard.count("FAILED") > 0 ? 1 : 0;
+    }
+
+    /** Collects the result of every test (and of skipped test methods or classes). */
+    private static final class Results implements TestExecutionListener {
+        private final List<ShardReportMerger.TestResult> tests = new CopyOnWriteArrayList<>();
+        private final Map<String, Long> started = new ConcurrentHashMap<>();
+        private volatile TestPlan plan;
+
+        @Override
+        public void testPlanExecutionStarted(TestPlan testPlan) {
+            plan = testPlan;
+        }
+
+        @Override
+        public void executionStarted(TestIdentifier id) {
+            if (id.isTest()) started.put(id.getUniqueId(), System.nanoTime());
+        }
+
+        @Override
+        public void executionSkipped(TestIdentifier id, String reason) {
+            if (id.isTest() || id.getSource().orElse(null) instanceof ClassSource) {
+                tests.add(new ShardReportMerger.TestResult(testClass(id), id.getDisplayName(), "SKIPPED", 0, reason));
+            }
+        }
+
+        @Override
+        public void executionFinished(TestIdentifier id, TestExecutionResult result) {
+            Long start = started.remove(id.getUniqueId());
+            boolean containerFailed = !id.isTest() && result.getStatus() == TestExecutionResult.Status.FAILED;
+            if (start == null && !containerFailed) return;
+            double ms = start == null ? 0 : (System.nanoTime() - start) / 1e6;
+            String message = result.getThrowable().map(t -> t.getClass().getSimpleName() + ": " + t.getMessage()).orElse(null);
+            tests.add(new ShardReportMerger.TestResult(testClass(id), id.getDisplayName(), result.getStatus().name(), ms, message));
+        }
+
+        /** Class of the test (for dynamic tests: of their factory), taken from the nearest source. */
+        private String testClass(TestIdentifier id) {
+            for (TestIdentifier current = id; current != null; current = plan.getParent(current).orElse(null)) {
+                Object source = current.getSource().orElse(null);
+                if (source instanceof MethodSource m) return m.getClassName();
+                if (source instanceof ClassSource c) return c.getClassName();
+            }
+            return id.getUniqueId();
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.frugaltests;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Lightweight HTTP server for the form (index.html, script.js, style.css) served from the classpath.
+ * - Started once per JVM on an ephemeral loopback port, see {@link #get()}.
+ * - Every response carries a strong ETag and no-cache: browsers revalidate on each load and get a 304 while
+ *   the file is unchanged, so pooled browsers don't re-download the assets. The URLs are not content-hashed,
+ *   so nothing is cached as immutable (a re-mounted directory or a new server must not serve stale files).
+ * - Tests can {@link #mount(String, Path)} a directory of generated files (e.g. a large location index).
+ * - The form's submissions go to the {@link RegistrationService} at {@value RegistrationService#PATH}, same origin.
+ */
+public final class StaticServer {
+
+    private static final Map<String, String> CONTENT_TYPES = Map.of(
+            "html", "text/html; charset=utf-8",
+            "js", "text/javascript; charset=utf-8",
+            "css", "text/css; charset=utf-8",
+            "json", "application/json; charset=utf-8",
+            "png", "image/png",
+            "ico", "image/x-icon");
+
+    private static volatile StaticServer instance;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final RegistrationService registrations;
+    private final Map<String, Optional<Resource>> resources = new ConcurrentHashMap<>();
+    private final Map<String, Path> mounts = new ConcurrentHashMap<>();
+
+    private StaticServer(HttpServer server, ExecutorService executor, RegistrationService registrations) {
+        this.server = server;
+        this.executor = executor;
+        this.registrations = registrations;
+    }
+
+    /** The JVM-wide server, started on first use and stopped by a shutdown hook. */
+    public static StaticServer get() {
+        if (instance == null) {
+            synchronized (StaticServer.class) {
+                if (instance == null) {
+                    StaticServer started = start(0);
+                    Runtime.getRuntime().addShutdownHook(new Thread(started::stop, "static-server-shutdown"));
+                    instance = started;
+                }
+            }
+        }
+        return instance;
+    }
+
+    static StaticServer start(int port) {
+        try {
+            return start(port, RegistrationService.fromSystemProperties());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open the registration log", e);
+        }
+    }
+
+    /** Starts a server whose form posts go to the given backend (e.g. a fresh log for a load test). */
+    static StaticServer start(int port, RegistrationService registrations) {
+        // small POST bodies otherwise wait ~40 ms for a delayed ACK (Nagle); read once when the first server starts
+        System.getProperties().putIfAbsent("sun.net.httpserver.nodelay", "true");
+        try {
+            HttpServer http = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+            ExecutorService executor = Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "static-server");
+                t.setDaemon(true);
+                return t;
+            });
+            StaticServer server = new StaticServer(http, executor, registrations);
+            http.createContext("/", server::handle);
+            http.createContext(RegistrationService.PATH, server.registrations);
+            http.setExecutor(executor);
+            http.start();
+            return server;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start the static form server", e);
+        }
+    }
+
+    public URI baseUrl() {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/");
+    }
+
+    public URI url(String path) {
+        return baseUrl().resolve(path);
+    }
+
+    /** URL of the registration form. */
+    public URI pageUrl() {
+        return url("index.html");
+    }
+
+    /** Serves the files of {@code dir} under {@code prefix} (a relative path ending in '/'), e.g. "large-locations/". */
+    public void mount(String prefix, Path dir) {
+        if (!prefix.endsWith("/") || prefix.startsWith("/") || prefix.contains("..")) {
+            throw new IllegalArgumentException("Mount prefix must be a relative path ending in '/': " + prefix);
+        }
+        mounts.put(prefix, dir);
+        resources.keySet().removeIf(name -> name.startsWith(prefix));
+    }
+
+    /** The backend behind {@value RegistrationService#PATH}. */
+    public RegistrationService registrations() {
+        return registrations;
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+        try {
+            registrations.close();
+        } catch (IOException e) {
+            System.err.println("Could not close the registration log: " + e.getMessage());
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String method = exchange.getRequestMethod();
+            if (!"GET".equals(method) && !"HEAD".equals(method)) {
+                exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            String path = exchange.getRequestURI().getPath();
+            if (path.equals("/")) path = "/index.html";
+            Optional<Resource> resource = resources.computeIfAbsent(path.substring(1), this::load);
+            if (resource.isEmpty()) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            Resource res = resource.get();
+            Headers headers = exchange.getResponseHeaders();
+            headers.set("ETag", res.etag());
+            headers.set("Cache-Control", "no-cache");
+            if (res.etag().equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+            headers.set("Content-Type", res.contentType());
+            if ("HEAD".equals(method)) {
+                headers.set("Content-Length", String.valueOf(res.body().length));
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, res.body().length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(res.body());
+            }
+        }
+    }
+
+    /** Loads a mounted file or classpath resource; only plain relative names with a known content type are served. */
+    private Optional<Resource> load(String name) {
+        int dot = name.lastIndexOf('.');
+        String type = dot < 0 ? null : CONTENT_TYPES.get(name.substring(dot + 1));
+        if (type == null || name.contains("..") || name.startsWith("/") || name.contains("\\")) {
+            return Optional.empty();
+        }
+        for (Map.Entry<String, Path> mount : mounts.entrySet()) {
+            if (!name.startsWith(mount.getKey())) continue;
+            Path file = mount.getValue().resolve(name.substring(mount.getKey().length()));
+            if (!Files.isRegularFile(file)) return Optional.empty();
+            try {
+                byte[] body = Files.readAllBytes(file);
+                return Optional.of(new Resource(body, type, etag(body)));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read " + file, e);
+            }
+        }
+        URL url = StaticServer.class.getClassLoader().getResource(name);
+        // project files only, never resources bundled inside dependency jars
+        if (url == null || !"file".equals(url.getProtocol())) return Optional.empty();
+        try (InputStream in = url.openStream()) {
+            byte[] body = in.readAllBytes();
+            return Optional.of(new Resource(body, type, etag(body)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + name, e);
+        }
+    }
+
+    private static String etag(byte[] body) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(body);
+            return '"' + HexFormat.of().formatHex(hash, 0, 16) + '"';
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Resource(byte[] body, String contentType, String etag) {
+    }
+
+    /** Serves the form for manual testing: prints the URL and runs until killed. */
+    public static void main(String[] args) throws InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8000;
+        StaticServer server = start(port);
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop, "static-server-shutdown"));
+        System.out.println("Serving the registration form at " + server.pageUrl());
+        Thread.currentThread().join();
+    }
+}
@@ -0,0 +1,25 @@
+package com.frugaltests;
+
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolver;
+
+import java.net.URI;
+
+/**
+ * Resolves {@link PageUrl} parameters to the form URL of the JVM-wide {@link StaticServer}.
+ */
+public class StaticServerExtension implements ParameterResolver {
+
+    @Override
+    public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        Class<?> type = parameterContext.getParameter().getType();
+        return parameterContext.isAnnotated(PageUrl.class) && (type == String.class || type == URI.class);
+    }
+
+    @Override
+    public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        URI page = StaticServer.get().pageUrl();
+        return parameterContext.getParameter().getType() == URI.class ? page : page.toString();
+    }
+}
@@ -0,0 +1,91 @@
+package com.frugaltests;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * StaticServer: serves the form and the location index from the classpath with cache validators, nothing else.
+ */
+public class StaticServerTest {
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    private HttpResponse<String> get(URI uri, String ifNoneMatch) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri).GET();
+        if (ifNoneMatch != null) request.header("If-None-Match", ifNoneMatch);
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    @DisplayName("Server is started once per JVM on a loopback port")
+    public void testSingleInstance() {
+        StaticServer server = StaticServer.get();
+        Assertions.assertSame(server, StaticServer.get());
+        Assertions.assertEquals("127.0.0.1", server.baseUrl().getHost());
+        Assertions.assertTrue(server.pageUrl().toString().endsWith("/index.html"));
+    }
+
+    @Test
+    @DisplayName("index.html, script.js and style.css are served with ETag and Cache-Control")
+    public void testServesFormAssets() throws Exception {
+        StaticServer server = StaticServer.get();
+
+        HttpResponse<String> page = get(server.pageUrl(), null);
+        Assertions.assertEquals(200, page.statusCode());
+        Assertions.assertTrue(page.body().contains("id=\"regForm\""));
+        Assertions.assertEquals("no-cache", page.headers().firstValue("Cache-Control").orElse(""));
+
+        HttpResponse<String> script = get(server.url("script.js"), null);
+        Assertions.assertEquals(200, script.statusCode());
+        Assertions.assertTrue(script.headers().firstValue("Content-Type").orElse("").startsWith("text/javascript"));
+        Assertions.assertEquals("no-cache", script.headers().firstValue("Cache-Control").orElse(""), "not versioned, so revalidated");
+
+        HttpResponse<String> style = get(server.url("style.css"), null);
+        Assertions.assertEquals(200, style.statusCode());
+        Assertions.assertTrue(style.headers().firstValue("ETag").isPresent());
+    }
+
+    @Test
+    @DisplayName("Matching If-None-Match returns 304 without a body")
+    public void testConditionalRequest() throws Exception {
+        URI script = StaticServer.get().url("script.js");
+        String etag = get(script, null).headers().firstValue("ETag").orElseThrow();
+        Assertions.assertTrue(etag.startsWith("\"") && etag.endsWith("\""), "ETag should be strong: " + etag);
+
+        HttpResponse<String> revalidated = get(script, etag);
+        Assertions.assertEquals(304, revalidated.statusCode());
+        Assertions.assertTrue(revalidated.body().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Unknown files, class files and path traversal are rejected")
+    public void testRejectsOtherResources() throws Exception {
+        StaticServer server = StaticServer.get();
+        Assertions.assertEquals(404, get(server.url("missing.html"), null).statusCode());
+        Assertions.assertEquals(404, get(server.url("com/frugaltests/StaticServer.class"), null).statusCode());
+        Assertions.assertEquals(404, get(server.url("junit-platform.properties"), null).statusCode());
+        Assertions.assertEquals(404, get(URI.create(server.baseUrl() + "..%2Fpom.xml"), null).statusCode());
+    }
+
+    @Test
+    @DisplayName("Location index and mounted directories are served as JSON")
+    public void testServesLocationsAndMounts(@TempDir Path dir) throws Exception {
+        StaticServer server = StaticServer.get();
+        HttpResponse<String> index = get(server.url("locations/" + LocationIndexGenerator.INDEX_FILE), null);
+        Assertions.assertEquals(200, index.statusCode());
+        Assertions.assertTrue(index.headers().firstValue("Content-Type").orElse("").startsWith("application/json"));
+        Assertions.assertTrue(index.body().startsWith("{\"version\":1,"));
+
+        Files.writeString(dir.resolve("index.json"), "{\"version\":1,\"countries\":[]}");
+        server.mount("mounted-test/", dir);
+        Assertions.assertEquals("{\"version\":1,\"countries\":[]}", get(server.url("mounted-test/index.json"), null).body());
+        Assertions.assertEquals(404, get(server.url("mounted-test/missing.json"), null).statusCode());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> server.mount("../up/", dir));
+    }
+}
@@ -0,0 +1,123 @@
+package com.frugaltests;
+
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Artifact directory of a single test invocation (screenshots, page sources).
+ * Each invocation gets its own folder, so parallel runs never overwrite each other's files.
+ *
+ * Screenshots and page sources are captured in memory on the test thread and written by the
+ * {@link ArtifactWriter} in the background: the returned path is where the file will appear, usually
+ * a few milliseconds later ({@link #awaitWrites(Duration)} waits for it). Identical screenshots are stored once.
+ */
+public final class TestArtifacts {
+
+    /** Which screenshots of passing states are kept; diagnostics of failures are always saved. */
+    public enum Policy {
+        ALL, FAILURES_ONLY;
+
+        /** "all" (default) or "failures". */
+        static Policy parse(String value) {
+            return value != null && value.trim().toLowerCase(Locale.ROOT).startsWith("failure") ? FAILURES_ONLY : ALL;
+        }
+    }
+
+    private final Path dir;
+    private final Policy policy;
+    private final ArtifactWriter writer;
+    private final List<CompletableFuture<Path>> writes = new CopyOnWriteArrayList<>();
+    private volatile boolean diagnosticsSaved;
+
+    TestArtifacts(Path dir) {
+        this(dir, Policy.ALL, ArtifactWriter.shared());
+    }
+
+    TestArtifacts(Path dir, Policy policy, ArtifactWriter writer) {
+        this.dir = dir;
+        this.policy = policy;
+        this.writer = writer;
+    }
+
+    public Path dir() {
+        return dir;
+    }
+
+    public Policy policy() {
+        return policy;
+    }
+
+    /** Path for an artifact file; the directory is created on demand. */
+    public Path resolve(String fileName) throws IOException {
+        Files.createDirectories(dir);
+        return dir.resolve(fileName);
+    }
+
+    /** Saves a diagnostic screenshot, overwriting an existing file with the same name. Written in the background. */
+    public Path saveScreenshot(WebDriver driver, String fileName) {
+        diagnosticsSaved = true;
+        return screenshot(driver, fileName);
+    }
+
+    /**
+     * Screenshot of a passing state (e.g. the success message). Skipped under {@link Policy#FAILURES_ONLY};
+     * if the test fails afterwards, {@link ArtifactsExtension} captures the failure instead.
+     */
+    public Optional<Path> saveSuccessScreenshot(WebDriver driver, String fileName) {
+        if (policy == Policy.FAILURES_ONLY) return Optional.empty();
+        return Optional.of(screenshot(driver, fileName));
+    }
+
+    /** Saves the current page source (UTF-8). Written in the background. */
+    public Path savePageSource(WebDriver driver, String fileName) {
+        diagnosticsSaved = true;
+        Path out = dir.resolve(fileName);
+        byte[] html;
+        try (LatencyRecorder.Marker ignored = LatencyRecorder.step("artifact.pageSource")) {
+            html = driver.getPageSource().getBytes(StandardCharsets.UTF_8);
+        }
+        writes.add(writer.write(out, html, false));
+        return out;
+    }
+
+    /** True when the test saved a screenshot or page source through the diagnostic methods. */
+    boolean diagnosticsSaved() {
+        return diagnosticsSaved;
+    }
+
+    /** Waits until every artifact of this invocation is on disk; false on timeout or write failure. */
+    public boolean awaitWrites(Duration timeout) {
+        try {
+            CompletableFuture.allOf(writes.toArray(new CompletableFuture<?>[0])).get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private Path screenshot(WebDriver driver, String fileName) {
+        Path out = dir.resolve(fileName);
+        byte[] png;
+        try (LatencyRecorder.Marker ignored = LatencyRecorder.step("artifact.screenshot")) {
+            png = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+        }
+        writes.add(writer.write(out, png, true));
+        return out;
+    }
+}
@@ -0,0 +1,93 @@
+package com.frugaltests;
+
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Records per-step latency of every test (see {@link LatencyRecorder}) and writes a report per test class to
+ * {@code <frugal.timings.dir>/<TestClass>.json|.txt}, default {@code target/timings}.
+ * - Before each test a recorder is bound to the test thread; {@link DriverPoolExtension} then hands out a
+ *   session decorated with a {@link TimingListener}.
+ * - After each test the Navigation/Paint Timing of the loaded index.html is read from the session, together with
+ *   the script time and long tasks of the whole test from its {@link PerformanceProbe}.
+ * - After all tests of the class the report and its percentile summary are written.
+ * Set -Dfrugal.timings.enabled=false to leave sessions undecorated.
+ */
+public class TimingExtension implements BeforeEachCallback, AfterEachCallback, AfterAllCallback {
+
+    public static final String TIMINGS_ENABLED = "frugal.timings.enabled";
+    public static final String TIMINGS_DIR = "frugal.timings.dir";
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(TimingExtension.class);
+
+    private static final String PAGE_TIMING_SCRIPT = """
+            const nav = performance.getEntriesByType('navigation')[0];
+            if (!nav || !nav.name.includes('index.html')) return null;
+            const t = {
+              responseStart: nav.responseStart, responseEnd: nav.responseEnd, domInteractive: nav.domInteractive,
+              domContentLoaded: nav.domContentLoadedEventEnd, load: nav.loadEventEnd, transferSize: nav.transferSize
+            };
+            performance.getEntriesByType('paint').forEach(p => { t[p.name] = p.startTime; });
+            return t;
+            """;
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        if (!enabled(context)) return;
+        LatencyRecorder recorder = new LatencyRecorder(context.getDisplayName());
+        context.getStore(NAMESPACE).put(LatencyRecorder.class, recorder);
+        LatencyRecorder.bind(recorder);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void afterEach(ExtensionContext context) {
+        LatencyRecorder recorder = context.getStore(NAMESPACE).remove(LatencyRecorder.class, LatencyRecorder.class);
+        if (recorder == null) return;
+        LatencyRecorder.bind(null);
+        WebDriver session = DriverPoolExtension.session(context);
+        if (session != null) {
+            try {
+                Map<String, Object> timing = new LinkedHashMap<>();
+                Map<String, Object> page = (Map<String, Object>) ((JavascriptExecutor) session).executeScript(PAGE_TIMING_SCRIPT);
+                if (page != null) timing.putAll(page);
+                PerformanceProbe probe = DriverPoolExtension.probe(context);
+                if (probe != null) {
+                    timing.putAll(probe.total().toPageTiming());
+                    timing.put("deviceProfile", probe.profile().id());
+                }
+                recorder.pageTiming(timing);
+            } catch (Exception e) {
+                System.err.println("Could not read page timing: " + e.getMessage());
+            }
+        }
+        String status = context.getExecutionException().isPresent() ? "failed" : "passed";
+        ExtensionContext classContext = context.getParent().orElse(context);
+        classContext.getStore(NAMESPACE)
+                .getOrComputeIfAbsent(LatencyReport.class, k -> new LatencyReport(context.getRequiredTestClass().getSimpleName()),
+                        LatencyReport.class)
+                .add(recorder, status);
+    }
+
+    @Override
+    public void afterAll(ExtensionContext context) throws Exception {
+        LatencyReport report = context.getStore(NAMESPACE).get(LatencyReport.class, LatencyReport.class);
+        if (report == null || report.isEmpty()) return;
+        Path dir = Path.of(context.getConfigurationParameter(TIMINGS_DIR).orElse("target/timings"));
+        Path json = report.writeTo(dir);
+        System.out.print(report.format(report.summary()));
+        System.out.println("Timings written to " + json.toAbsolutePath());
+    }
+
+    private static boolean enabled(ExtensionContext context) {
+        return context.getConfigurationParameter(TIMINGS_ENABLED).map(Boolean::parseBoolean).orElse(true);
+    }
+}
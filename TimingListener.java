@@ -0,0 +1,45 @@
+package com.frugaltests;
+
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Times every call made through a driver decorated with {@code EventFiringDecorator}: get, findElement,
+ * sendKeys, click, executeScript, getScreenshotAs, ... Steps are named after the interface that declares the
+ * call ({@code WebDriver.get}, {@code WebElement.sendKeys}, {@code JavascriptExecutor.executeScript}).
+ * A listener belongs to one leased session, which is only used by one test thread at a time.
+ */
+final class TimingListener implements WebDriverListener {
+
+    private final LatencyRecorder recorder;
+    private final Deque<Long> starts = new ArrayDeque<>();
+
+    TimingListener(LatencyRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        starts.push(System.nanoTime());
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        end(method, "");
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        end(method, " (failed)");
+    }
+
+    private void end(Method method, String suffix) {
+        Long start = starts.poll();
+        if (start == null) return;
+        recorder.record(method.getDeclaringClass().getSimpleName() + "." + method.getName() + suffix, start, System.nanoTime());
+    }
+}
@@ -0,0 +1,113 @@
+package com.frugaltests;
+
+import org.junit.jupiter.api.*;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Differential check: RegistrationValidator vs. the real validateField in the page.
+ * Generated inputs are sent in batches, one executeScript call per batch, and every disagreement is reported.
+ * Tune with -Dfrugal.fuzz.samples, -Dfrugal.fuzz.batch and -Dfrugal.fuzz.seed (printed on each run).
+ */
+@RegistrationFlow
+@Tag(ResultCacheExtension.RANDOMIZED) // new inputs on every run: never skipped by the result cache
+public class ValidatorDifferentialTest {
+
+    private static final String BATCH_SCRIPT = """
+            const cases = arguments[0];
+            const country = document.getElementById('country');
+            const password = document.getElementById('password');
+            return cases.map(c => {
+              country.value = c.countrySelected ? country.options[1].value : '';
+              if (c.field === 'confirmPassword') password.value = c.password;
+              const el = document.getElementById(c.field);
+              el.value = c.value;
+              validateField(el);
+              const err = getErrorElementFor(el);
+              return err.style.display === 'none' ? '' : err.textContent;
+            });
+            """;
+
+    private record Case(String field, String value, String password, boolean countrySelected) {
+        String expected() {
+            String message = switch (field) {
+                case "email" -> RegistrationValidator.email(value);
+                case "phone" -> RegistrationValidator.phone(value, countrySelected);
+                case "password" -> RegistrationValidator.password(value);
+                default -> RegistrationValidator.confirmPassword(password, value);
+            };
+            return message == null ? "" : message;
+        }
+
+        Map<String, Object> toArgument() {
+            Map<String, Object> arg = new HashMap<>();
+            arg.put("field", field);
+            arg.put("value", value);
+            arg.put("password", password);
+            arg.put("countrySelected", countrySelected);
+            return arg;
+        }
+    }
+
+    @Test
+    @DisplayName("Java validator agrees with the page's validateField on generated inputs")
+    @SuppressWarnings("unchecked")
+    public void testValidatorMatchesPage(WebDriver driver, @PageUrl String page) {
+        int samples = Integer.getInteger("frugal.fuzz.samples", 4000);
+        int batchSize = Integer.getInteger("frugal.fuzz.batch", 500);
+        long seed = Long.getLong("frugal.fuzz.seed", System.nanoTime());
+        System.out.println("Differential validation: " + samples + " inputs, batch " + batchSize + ", seed " + seed);
+
+        driver.get(page);
+        FormWaits.forLocations(driver, Duration.ofSeconds(20)); // the phone rule needs a selectable country
+        FuzzInputs inputs = new FuzzInputs(seed);
+        List<Case> cases = new ArrayList<>();
+        for (int i = 0; i < samples; i++) {
+            switch (i % 4) {
+                case 0 -> cases.add(new Case("email", inputs.email(), null, false));
+                case 1 -> cases.add(new Case("phone", inputs.phone(), null, inputs.nextBoolean()));
+                case 2 -> cases.add(new Case("password", inputs.password(), null, false));
+                default -> {
+                    String password = inputs.password();
+                    cases.add(new Case("confirmPassword", inputs.nextBoolean() ? password : inputs.password(), password, false));
+                }
+            }
+        }
+
+        List<String> disagreements = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int from = 0; from < cases.size(); from += batchSize) {
+            List<Case> batch = cases.subList(from, Math.min(cases.size(), from + batchSize));
+            List<String> actual = (List<String>) ((JavascriptExecutor) driver).executeScript(BATCH_SCRIPT,
+                    batch.stream().map(Case::toArgument).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                Case c = batch.get(i);
+                if (!c.expected().equals(actual.get(i))) {
+                    disagreements.add(c.field() + " '" + escape(c.value()) + "'"
+                            + (c.field().equals("phone") ? " (country selected: " + c.countrySelected() + ")" : "")
+                            + " -> page: '" + actual.get(i) + "', java: '" + c.expected() + "'");
+                }
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Checked %d inputs in the browser in %.2fs (%.0f inputs/s)%n", samples, seconds, samples / seconds);
+
+        disagreements.stream().limit(25).forEach(d -> System.err.println("DISAGREEMENT " + d));
+        Assertions.assertTrue(disagreements.isEmpty(),
+                disagreements.size() + " disagreements between RegistrationValidator and script.js (seed " + seed + ")");
+    }
+
+    private static String escape(String s) {
+        StringBuilder sb = new StringBuilder();
+        for (char c : s.toCharArray()) {
+            if (c < 0x20 || c > 0x7e) sb.append(String.format("\\u%04x", (int) c)); else sb.append(c);
+        }
+        return sb.toString();
+    }
+}
@@ -1,67 +1,4 @@
 
-const data = {
-  "India": {
-    "Telangana": ["Hyderabad", "Warangal", "Nizamabad", "Karimnagar"],
-    "Maharashtra": ["Mumbai", "Pune", "Nagpur", "Nashik"],
-    "Karnataka": ["Bengaluru", "Mysore", "Mangalore"],
-    "Tamil Nadu": ["Chennai", "Coimbatore", "Madurai"],
-    "Uttar Pradesh": ["Lucknow", "Kanpur", "Varanasi"]
-  },
-  "United States": {
-    "California": ["San Francisco", "Los Angeles", "San Diego", "Sacramento"],
-    "New York": ["New York City", "Buffalo", "Rochester"],
-    "Texas": ["Houston", "Dallas", "Austin"],
-    "Florida": ["Miami", "Orlando", "Tampa"]
-  },
-  "United Kingdom": {
-    "England": ["London", "Manchester", "Birmingham"],
-    "Scotland": ["Edinburgh", "Glasgow"],
-    "Wales": ["Cardiff", "Swansea"],
-    "Northern Ireland": ["Belfast"]
-  },
-  "Canada": {
-    "Ontario": ["Toronto", "Ottawa", "Hamilton"],
-    "Quebec": ["Montreal", "Quebec City"],
-    "British Columbia": ["Vancouver", "Victoria"],
-    "Alberta": ["Calgary", "Edmonton"]
-  },
-  "Australia": {
-    "New South Wales": ["Sydney", "Newcastle"],
-    "Victoria": ["Melbourne", "Geelong"],
-    "Queensland": ["Brisbane", "Gold Coast"]
-  },
-  "Germany": {
-    "Bavaria": ["Munich", "Nuremberg"],
-    "Berlin": ["Berlin"],
-    "North Rhine-Westphalia": ["Cologne", "Düsseldorf"]
-  },
-  "France": {
-    "Île-de-France": ["Paris"],
-    "Provence-Alpes-Côte d'Azur": ["Marseille", "Nice"],
-    "Auvergne-Rhône-Alpes": ["Lyon"]
-  },
-  "Japan": {
-    "Tokyo": ["Tokyo"],
-    "Osaka": ["Osaka"],
-    "Kansai": ["Kyoto", "Nara"]
-  },
-  "China": {
-    "Beijing": ["Beijing"],
-    "Shanghai": ["Shanghai"],
-    "Guangdong": ["Guangzhou", "Shenzhen"]
-  },
-  "Brazil": {
-    "São Paulo": ["São Paulo"],
-    "Rio de Janeiro": ["Rio de Janeiro"],
-    "Minas Gerais": ["Belo Horizonte"]
-  },
-  "South Africa": {
-    "Gauteng": ["Johannesburg", "Pretoria"],
-    "Western Cape": ["Cape Town"],
-    "KwaZulu-Natal": ["Durban"]
-  }
-};
-
 const disposableDomains = ["tempmail.com","mailinator.com","10minutemail.com","yopmail.com","disposable.com"];
 
 
@@ -74,34 +11,152 @@ const altErrorId = {
 const country = document.getElementById('country');
 const state = document.getElementById('state');
 const city = document.getElementById('city');
-const inputs = Array.from(document.querySelectorAll('input,select,textarea'));
+const regForm = document.getElementById('regForm');
+const inputs = Array.from(document.querySelectorAll('input:not(.typeahead),select,textarea'));
+
+
+// Locations are loaded on demand: locations/index.json lists the countries, one file per country holds its
+// states and cities. Every list is pre-sorted by LocationIndexGenerator, so nothing is sorted here.
+// ?locations=<path>/ points the page at another dataset.
+const locationBase = new URLSearchParams(window.location.search).get('locations') || 'locations/';
+const OPTION_CHUNK = 2000;   // options appended per task; large lists are rendered over several tasks
+const TYPEAHEAD_MIN = 100;   // lists at least this long get a filter box
+const countryFiles = {};     // country -> file name
+const countryCache = {};     // country -> Promise of { states, cities, stateIndex }
+let currentCountry = null;
+let locationTasks = 0;       // fetches and renders in flight; the form is aria-busy meanwhile
+let idleWaiters = [];
+
+function track(promise){
+  if(locationTasks++ === 0) regForm.setAttribute('aria-busy', 'true');
+  return promise.finally(() => {
+    if(--locationTasks > 0) return;
+    regForm.removeAttribute('aria-busy');
+    idleWaiters.splice(0).forEach(resolve => resolve());
+  });
+}
+
+// resolves once every location fetch and option render has finished
+function locationsIdle(){
+  return locationTasks === 0 ? Promise.resolve() : new Promise(resolve => idleWaiters.push(resolve));
+}
+
+function fetchJson(file){
+  return fetch(locationBase + file).then(r => {
+    if(!r.ok) throw new Error('Could not load ' + file + ' (' + r.status + ')');
+    return r.json();
+  });
+}
+
+const locationIndex = track(fetchJson('index.json').then(index => {
+  index.countries.forEach(([name, file]) => { countryFiles[name] = file; });
+  const names = index.countries.map(c => c[0]);
+  showList(country, names);
+  return names;
+})).catch(e => { console.error(e); return []; });
+
+function loadCountry(name){
+  if(!countryCache[name]){
+    countryCache[name] = track(fetchJson(countryFiles[name]).then(e =>
+      ({ states: e.states, cities: e.cities, stateIndex: new Map(e.states.map((s, i) => [s, i])) })));
+    countryCache[name].catch(() => { delete countryCache[name]; });
+  }
+  return countryCache[name];
+}
+
+// every country with its states and cities, in option order (loads all country files)
+function allLocations(){
+  return locationIndex.then(names => Promise.all(names.map(c =>
+    loadCountry(c).then(e => [c, e.states.map((s, i) => [s, e.cities[i]])]))));
+}
+
+// Replaces the options after the placeholder. Options are built in a DocumentFragment and appended in chunks;
+// a newer render of the same select cancels the older one.
+function renderOptions(select, names){
+  const token = (select.renderToken || 0) + 1;
+  select.renderToken = token;
+  select.length = 1;
+  return track(new Promise(resolve => {
+    let i = 0;
+    const step = () => {
+      if(select.renderToken !== token) return resolve(false);
+      const frag = document.createDocumentFragment();
+      const end = Math.min(names.length, i + OPTION_CHUNK);
+      for(; i < end; i++) frag.appendChild(new Option(names[i], names[i]));
+      select.appendChild(frag);
+      if(i < names.length) setTimeout(step, 0); else resolve(true);
+    };
+    step();
+  }));
+}
+
+// Shows a (pre-sorted) list in a select; long lists get a typeahead filter.
+function showList(select, names){
+  const filter = document.getElementById(select.id + 'Filter');
+  select.list = { names, keys: names.map(n => n.toLowerCase()) };
+  if(filter){ filter.value = ''; filter.hidden = names.length < TYPEAHEAD_MIN; }
+  return renderOptions(select, names);
+}
+
+function clearList(select){
+  const filter = document.getElementById(select.id + 'Filter');
+  select.list = null;
+  select.renderToken = (select.renderToken || 0) + 1;
+  select.length = 1;
+  if(filter){ filter.value = ''; filter.hidden = true; }
+}
+
+// first index in the sorted keys that is >= key
+function lowerBound(keys, key){
+  let lo = 0, hi = keys.length;
+  while(lo < hi){ const mid = (lo + hi) >>> 1; if(keys[mid] < key) lo = mid + 1; else hi = mid; }
+  return lo;
+}
 
+// Typeahead: the names starting with the typed text are one contiguous range of the sorted list.
+function filterList(select, text){
+  if(!select.list) return;
+  const q = text.trim().toLowerCase();
+  const { names, keys } = select.list;
+  const from = q ? lowerBound(keys, q) : 0;
+  const to = q ? lowerBound(keys, q + '\uffff') : names.length;
+  const selected = select.value;
+  renderOptions(select, names.slice(from, to)).then(done => {
+    if(!done || !selected) return;
+    select.value = selected;
+    if(select.value !== selected) select.dispatchEvent(new Event('change', { bubbles: true }));
+  });
+}
 
-Object.keys(data).sort().forEach(c => {
-  const opt = document.createElement('option'); opt.value = c; opt.textContent = c; country.appendChild(opt);
+['country', 'state', 'city'].forEach(id => {
+  const filter = document.getElementById(id + 'Filter');
+  const select = document.getElementById(id);
+  if(filter) filter.addEventListener('input', () => filterList(select, filter.value));
 });
 
 
 country.addEventListener('change', () => {
-  state.innerHTML = '<option value="">-- Select State --</option>';
-  city.innerHTML = '<option value="">-- Select City --</option>';
+  clearList(state);
+  clearList(city);
+  currentCountry = null;
   const sel = country.value;
-  if(!sel) { validateField(country); return; }
-  Object.keys(data[sel]).forEach(s => {
-    const opt = document.createElement('option'); opt.value = s; opt.textContent = s; state.appendChild(opt);
-  });
   validateField(country);
+  if(!sel) return;
+  // tracked as a whole, so the page is not idle between the fetch and the render of the states
+  track(loadCountry(sel).then(entry => {
+    if(country.value !== sel) return;
+    currentCountry = entry;
+    return showList(state, entry.states);
+  })).catch(e => console.error(e));
 });
 
 
 state.addEventListener('change', () => {
-  city.innerHTML = '<option value="">-- Select City --</option>';
-  const selCountry = country.value; const selState = state.value;
-  if(!selState) { validateField(state); return; }
-  data[selCountry][selState].forEach(ct => {
-    const opt = document.createElement('option'); opt.value = ct; opt.textContent = ct; city.appendChild(opt);
-  });
+  clearList(city);
+  const selState = state.value;
   validateField(state);
+  if(!selState || !currentCountry) return;
+  showList(city, currentCountry.cities[currentCountry.stateIndex.get(selState)] || []);
 });
 
 city.addEventListener('change', () => validateField(city));
@@ -131,75 +186,138 @@ function hideError(el){
   if(err){ err.textContent = ''; err.style.display = 'none'; }
 }
 
-function validateField(el){
-  const id = el.id;
-  if(id === 'firstName'){
-    if(!el.value.trim()) showError(el,'First name is required'); else hideError(el);
-  }
-  if(id === 'lastName'){
-    if(!el.value.trim()) showError(el,'Last name is required'); else hideError(el);
-  }
-  if(id === 'email'){
+// Validation engine: every field keeps its own state (valid or not, message shown), an event only
+// re-evaluates the field itself and the fields that depend on it, and the submit button follows a
+// counter of invalid fields instead of re-scanning the DOM.
+const passwordInput = document.getElementById('password');
+const genderRadios = Array.from(document.getElementsByName('gender'));
+const submitBtn = document.getElementById('submitBtn');
+
+const rules = {
+  firstName: el => el.value.trim() ? null : 'First name is required',
+  lastName: el => el.value.trim() ? null : 'Last name is required',
+  email: el => {
     const v = el.value.trim();
-    if(!v) return showError(el,'Email is required');
-    const re = /^[^@\s]+@[^@\s]+\.[^@\s]+$/;
-    if(!re.test(v)) return showError(el,'Enter a valid email');
-    const dom = v.split('@')[1].toLowerCase();
-    if(disposableDomains.includes(dom)) return showError(el,'Disposable emails are not allowed');
-    hideError(el);
-  }
-  if(id === 'phone'){
+    if(!v) return 'Email is required';
+    if(!/^[^@\s]+@[^@\s]+\.[^@\s]+$/.test(v)) return 'Enter a valid email';
+    if(disposableDomains.includes(v.split('@')[1].toLowerCase())) return 'Disposable emails are not allowed';
+    return null;
+  },
+  phone: el => {
     const v = el.value.trim();
-    if(!v) return showError(el,'Phone number is required');
-    const c = country.value;
-    if(c){
-      if(!/^\+\d{1,4}[\s-]?\d{6,14}$/.test(v)) return showError(el,'Phone must include a valid country code and digits (e.g. +91 9876543210)');
-    } else {
-      if(!/^\+?\d[\d\s-]{5,}$/.test(v)) return showError(el,'Enter a valid phone number');
-    }
-    hideError(el);
-  }
-  if(id === 'country'){
-    if(!el.value) showError(el,'Country is required'); else hideError(el);
-  }
-  if(id === 'state'){
-    if(!el.value) showError(el,'State is required'); else hideError(el);
-  }
-  if(id === 'city'){
-    if(!el.value) showError(el,'City is required'); else hideError(el);
-  }
-  if(id === 'password'){
-    const ok = checkPassword(el.value);
-    if(ok.score < 2) return showError(el,'Password too weak'); else hideError(el);
-  }
-  if(id === 'confirmPassword'){
-    const pass = document.getElementById('password').value;
-    if(el.value !== pass) showError(el,'Confirm password must match'); else hideError(el);
-  }
-  if(id === 'terms'){
-    if(!el.checked) {
-      const errEl = document.getElementById('termsError');
-      if(errEl){ errEl.style.display = 'block'; errEl.textContent = 'You must accept terms'; }
-    } else {
-      const errEl = document.getElementById('termsError');
-      if(errEl){ errEl.style.display='none'; }
-    }
-  }
+    if(!v) return 'Phone number is required';
+    if(country.value){
+      if(!/^\+\d{1,4}[\s-]?\d{6,14}$/.test(v)) return 'Phone must include a valid country code and digits (e.g. +91 9876543210)';
+    } else if(!/^\+?\d[\d\s-]{5,}$/.test(v)) return 'Enter a valid phone number';
+    return null;
+  },
+  gender: () => genderRadios.some(r => r.checked) ? null : 'Please select a gender',
+  country: el => el.value ? null : 'Country is required',
+  state: el => el.value ? null : 'State is required',
+  city: el => el.value ? null : 'City is required',
+  password: el => checkPassword(el.value).score < 2 ? 'Password too weak' : null,
+  confirmPassword: el => el.value !== passwordInput.value ? 'Confirm password must match' : null,
+  terms: el => el.checked ? null : 'You must accept terms'
+};
 
-  
-  const genders = document.getElementsByName('gender');
-  let gChecked = false; for(const r of genders) if(r.checked) gChecked = true;
-  if(!gChecked) {
-    const ge = document.getElementById('genderError');
-    if(ge){ ge.style.display='block'; ge.textContent='Please select a gender'; }
-  } else {
-    const ge = document.getElementById('genderError');
-    if(ge){ ge.style.display='none'; }
+// fields whose result depends on another field's value
+const dependents = { password: ['confirmPassword'], country: ['phone', 'state', 'city'], state: ['city'] };
+
+// key -> { el, err, valid, value (last evaluated), shown (message on screen), rendered (screen matches value) }
+const fields = {};
+// error element id -> key, for the server's validation errors
+const errorKeys = {};
+let invalidCount = 0;
+let genderPrompted = false;
+
+function keyOf(el){
+  return el.name === 'gender' && el.type === 'radio' ? 'gender' : el.id;
+}
+
+function currentValue(key){
+  const f = fields[key];
+  if(key === 'gender'){ const r = genderRadios.find(r => r.checked); return r ? r.value : ''; }
+  if(key === 'terms') return f.el.checked;
+  return f.el.value;
+}
+
+function evaluate(key){
+  const f = fields[key];
+  const msg = rules[key](f.el);
+  f.value = currentValue(key);
+  const ok = !msg;
+  if(f.valid !== ok){ f.valid = ok; invalidCount += ok ? -1 : 1; }
+  return msg;
+}
+
+function render(key, msg){
+  const f = fields[key];
+  f.rendered = true;
+  if(f.shown === msg) return;
+  f.shown = msg;
+  if(key === 'gender' || key === 'terms'){
+    if(!f.err) return;
+    if(msg){ f.err.textContent = msg; f.err.style.display = 'block'; } else f.err.style.display = 'none';
+  } else if(msg) showError(f.el, msg); else hideError(f.el);
+}
+
+// a dependent's visible error is refreshed (or cleared), but a new one is never raised on a field the user is not editing
+function reevaluate(key){
+  const f = fields[key];
+  const msg = evaluate(key);
+  if(f.shown) render(key, msg); else f.rendered = !msg;
+}
+
+function validateField(el){
+  const key = keyOf(el);
+  if(rules[key]){
+    render(key, evaluate(key));
+    if(key === 'password') updateMeter(el.value);
+    (dependents[key] || []).forEach(reevaluate);
   }
+  if(!genderPrompted && key !== 'gender'){ genderPrompted = true; render('gender', evaluate('gender')); }
+  if(key === 'gender') genderPrompted = true;
+  updateSubmitState();
+}
+
+// input/change listener: skips the work when the value did not change since it was last shown (e.g. change after input)
+function onFieldEvent(el){
+  const f = fields[keyOf(el)];
+  if(f && f.rendered && f.value === currentValue(keyOf(el))) return;
+  validateField(el);
+}
 
+function clearFieldError(el){
+  const key = keyOf(el);
+  const f = fields[key];
+  if(!f){ el.classList.remove('error'); return; }
+  if(key === 'gender') return;
+  render(key, null);
+  f.rendered = f.valid;
+}
+
+// re-reads every field without showing errors, e.g. after the form was reset
+function revalidateAll(){
+  Object.keys(fields).forEach(key => { evaluate(key); render(key, null); fields[key].rendered = fields[key].valid; });
+  genderPrompted = false;
+  updateMeter(passwordInput.value);
   updateSubmitState();
 }
 
+function updateSubmitState(){
+  submitBtn.disabled = invalidCount > 0;
+}
+
+Object.keys(rules).forEach(key => {
+  const el = key === 'gender' ? genderRadios[0] : document.getElementById(key);
+  if(!el) return;
+  fields[key] = { el, err: key === 'gender' ? document.getElementById('genderError') : getErrorElementFor(el),
+                  valid: true, value: undefined, shown: null, rendered: false };
+  if(fields[key].err) errorKeys[fields[key].err.id] = key;
+  evaluate(key);
+  fields[key].rendered = fields[key].valid;
+});
+
 
 const meterBar = document.getElementById('meterBar');
 const meterText = document.getElementById('strength');
@@ -224,46 +342,33 @@ function updateMeter(pass){
 
 
 inputs.forEach(i => {
-  i.addEventListener('input', ()=>validateField(i));
-  i.addEventListener('change', ()=>validateField(i));
+  i.addEventListener('input', ()=>{ submissionKey = null; onFieldEvent(i); });
+  i.addEventListener('change', ()=>{ submissionKey = null; onFieldEvent(i); });
+  i.addEventListener('focus', ()=>clearFieldError(i));
 });
-document.getElementById('password').addEventListener('input', (e)=>{ updateMeter(e.target.value); validateField(e.target); });
-document.getElementById('confirmPassword').addEventListener('input', (e)=>validateField(e.target));
-
+// reset() changes values without input events; the new values are only in place after the reset event
+document.getElementById('regForm').addEventListener('reset', ()=>setTimeout(revalidateAll, 0));
 
-function updateSubmitState(){
-  const requiredIds = ['firstName','lastName','email','phone','password','confirmPassword','country','state','city'];
-  let ok=true;
-  for(const id of requiredIds){
-    const el = document.getElementById(id);
-    if(!el) continue;
-    if(!el.value || el.value.trim()==='') ok=false;
-  }
- 
-  const genders = document.getElementsByName('gender'); let g=false; for(const r of genders) if(r.checked) g=true; if(!g) ok=false;
-  
-  if(!document.getElementById('terms').checked) ok=false;
 
-  
-  const anyErrorFromClass = Array.from(document.querySelectorAll('.error-msg')).some(el => el.style.display==='block');
+// Submissions go to the registration service next to the page. The Idempotency-Key belongs to the filled-in
+// form, not to the click: a double click or a retry after a network error is stored once. Any edit of a field
+// drops the key (a retry with corrected values is a new submission), as does a successful registration.
+const registrationUrl = 'api/registrations';
+let submissionKey = null;
 
-  
-  const anyErrorFromIds = Array.from(document.querySelectorAll('[id$="Error"]'))
-    .some(el => (el.style.display !== 'none' && (el.innerText && el.innerText.trim().length>0)));
+function newSubmissionKey(){
+  if(window.crypto && crypto.randomUUID) return crypto.randomUUID();
+  return Date.now().toString(36) + '-' + Math.random().toString(36).slice(2) + Math.random().toString(36).slice(2);
+}
 
-  
-  const anyAltErrors = Object.values(altErrorId).some(eid => {
-    const el = document.getElementById(eid);
-    return el && (el.style.display !== 'none' && (el.innerText && el.innerText.trim().length>0));
+// server-side validation errors use the ids of the error elements (emailError, confirmError, ...); they are shown
+// through the field state, so the next edit of the field re-validates it and clears the message
+function showServerErrors(errors){
+  Object.entries(errors).forEach(([id, msg]) => {
+    if(errorKeys[id]) render(errorKeys[id], msg);
   });
-
-  const anyError = anyErrorFromClass || anyErrorFromIds || anyAltErrors;
-
-  if(anyError) ok=false;
-  document.getElementById('submitBtn').disabled = !ok;
 }
 
-
 document.getElementById('submitBtn').addEventListener('click', async ()=>{
   const btn = document.getElementById('submitBtn'); btn.disabled = true; document.getElementById('status').textContent = 'Submitting...';
   const payload = {
@@ -276,27 +381,42 @@ document.getElementById('submitBtn').addEventListener('click', async ()=>{
     address: document.getElementById('address').value.trim(),
     country: document.getElementById('country').value,
     state: document.getElementById('state').value,
-    city: document.getElementById('city').value
+    city: document.getElementById('city').value,
+    password: passwordInput.value,
+    confirmPassword: document.getElementById('confirmPassword').value,
+    terms: document.getElementById('terms').checked
   };
-  console.log('Submitting payload', payload);
-
+  if(!submissionKey) submissionKey = newSubmissionKey();
+
+  let response, body = {};
+  try {
+    response = await fetch(registrationUrl, {
+      method: 'POST',
+      headers: { 'Content-Type': 'application/json', 'Idempotency-Key': submissionKey },
+      body: JSON.stringify(payload)
+    });
+    body = await response.json().catch(() => ({}));
+  } catch(e) {
+    response = null;
+  }
+  if(!response || !response.ok){
+    if(response && response.status === 422 && body.errors) showServerErrors(body.errors);
+    document.getElementById('status').textContent = response && response.status === 422
+      ? 'Please correct the highlighted fields.'
+      : 'Registration failed' + (body.error ? ': ' + body.error : '') + '. Please try again.';
+    updateSubmitState();
+    return;
+  }
 
-  await new Promise(r => setTimeout(r, 900));
+  submissionKey = null;
   document.getElementById('status').textContent = '';
   document.getElementById('finalMessage').style.display = 'block';
   document.getElementById('finalMessage').innerHTML = '<div class="success-msg">Registration Successful! Your profile has been submitted successfully.</div>';
+  document.getElementById('finalMessage').dataset.registrationId = body.id;
 
-  
   setTimeout(()=>{ document.getElementById('regForm').reset(); updateMeter(''); updateSubmitState(); document.getElementById('finalMessage').style.display='none'; }, 1200);
 });
 
 
-inputs.forEach(i => {
-  i.addEventListener('focus', ()=> {
-    const err = getErrorElementFor(i); if(err) { err.style.display = 'none'; err.textContent=''; }
-    i.classList.remove('error');
-  });
-});
-
 
 updateSubmitState();